@@ -0,0 +1,46 @@
+package com.PPPL.backend.config.async;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class LeadScoringExecutorConfig {
+
+    @Value("${lead-scoring.batch.concurrency:4}")
+    private int concurrency;
+
+    /**
+     * Thread pool for parallel Gemini calls during batch lead analysis.
+     * Pool size = max concurrent Gemini requests.
+     */
+    @Bean("leadScoringExecutor")
+    public ThreadPoolTaskExecutor leadScoringExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setThreadNamePrefix("lead-scoring-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Thread pool for background batch analysis jobs.
+     * Each job coordinates its chunks on leadScoringExecutor.
+     */
+    @Bean("leadJobExecutor")
+    public ThreadPoolTaskExecutor leadJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("lead-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,65 @@
+package com.PPPL.backend.config.http;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+public class GeminiHttpClientConfig {
+
+    @Value("${spring.http.client.connect-timeout:10000}")
+    private int connectTimeoutMillis;
+
+    @Value("${spring.http.client.read-timeout:30000}")
+    private long readTimeoutMillis;
+
+    @Value("${google.gemini.http.max-connections:20}")
+    private int maxConnections;
+
+    @Value("${google.gemini.base-url:https://generativelanguage.googleapis.com/v1beta/models/}")
+    private String baseUrl;
+
+    /**
+     * Connection pool for Gemini API - keep-alive connections reused across calls
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider geminiConnectionProvider() {
+        return ConnectionProvider.builder("gemini")
+            .maxConnections(maxConnections)
+            .pendingAcquireTimeout(Duration.ofMillis(connectTimeoutMillis))
+            .maxIdleTime(Duration.ofSeconds(30))
+            .maxLifeTime(Duration.ofMinutes(5))
+            .evictInBackground(Duration.ofSeconds(60))
+            .build();
+    }
+
+    /**
+     * RestClient for Gemini API on Reactor Netty (non-blocking I/O, pooled, HTTP/2 via ALPN)
+     * Plain http base-url (local stub) uses HTTP/1.1 without TLS
+     */
+    @Bean("geminiRestClient")
+    public RestClient geminiRestClient(ConnectionProvider geminiConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(geminiConnectionProvider);
+        if (baseUrl.startsWith("https")) {
+            httpClient = httpClient
+                .protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                .secure();
+        }
+        httpClient = httpClient
+            .keepAlive(true)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+            .responseTimeout(Duration.ofMillis(readTimeoutMillis));
+
+        return RestClient.builder()
+            .requestFactory(new ReactorClientHttpRequestFactory(httpClient))
+            .build();
+    }
+}
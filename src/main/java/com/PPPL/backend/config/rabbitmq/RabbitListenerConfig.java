@@ -4,6 +4,7 @@ import org.springframework.amqp.rabbit.annotation.EnableRabbit;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -23,4 +24,24 @@ public class RabbitListenerConfig {
         factory.setMaxConcurrentConsumers(10);
         return factory;
     }
-}
\ No newline at end of file
+
+    /**
+     * Small consumer pool for lead scoring, prefetch 1 so Gemini load stays even.
+     * Failed messages are not requeued (lead stays pending for batch analysis).
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory leadScoringListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            Jackson2JsonMessageConverter messageConverter,
+            @Value("${lead-scoring.queue.concurrency:2}") int concurrency
+    ) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(concurrency);
+        factory.setPrefetchCount(1);
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+}
@@ -14,13 +14,16 @@ public class RabbitMQConfig {
     // Queue Names
     public static final String QUEUE_WS_ADMIN = "queue.ws.admin";
     public static final String QUEUE_EMAIL = "queue.email";
+    public static final String QUEUE_LEAD_SCORING = "queue.lead.scoring";
 
     // Exchange
     public static final String EXCHANGE_NOTIFICATION = "exchange.notification";
+    public static final String EXCHANGE_LEAD = "exchange.lead";
 
     // Routing Keys
     public static final String ROUTING_KEY_ADMIN = "routing.admin";
     public static final String ROUTING_KEY_EMAIL = "routing.email";
+    public static final String ROUTING_KEY_LEAD_SCORING = "routing.lead.scoring";
 
     /**
      * Queue untuk broadcast notifikasi admin via WebSocket
@@ -38,6 +41,14 @@ public class RabbitMQConfig {
         return new Queue(QUEUE_EMAIL, true);
     }
 
+    /**
+     * Queue untuk scoring lead baru di background
+     */
+    @Bean
+    public Queue queueLeadScoring() {
+        return new Queue(QUEUE_LEAD_SCORING, true);
+    }
+
     /**
      * Topic Exchange untuk routing
      */
@@ -68,6 +79,25 @@ public class RabbitMQConfig {
                 .with(ROUTING_KEY_EMAIL);
     }
 
+    /**
+     * Topic Exchange untuk event lead
+     */
+    @Bean
+    public TopicExchange leadExchange() {
+        return new TopicExchange(EXCHANGE_LEAD);
+    }
+
+    /**
+     * Binding: exchange lead -> queue lead scoring
+     */
+    @Bean
+    public Binding bindingLeadScoring(Queue queueLeadScoring, TopicExchange leadExchange) {
+        return BindingBuilder
+                .bind(queueLeadScoring)
+                .to(leadExchange)
+                .with(ROUTING_KEY_LEAD_SCORING);
+    }
+
     /**
      * JSON Message Converter
      */
@@ -5,6 +5,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -117,6 +119,10 @@ public class SecurityConfig {
                     "/api/ws/**"
                 ).permitAll()
 
+                // Actuator metrics - SUPER_ADMIN only
+                .requestMatchers("/actuator/metrics/**")
+                    .hasRole("SUPER_ADMIN")
+
                 // Admin endpoints - SUPER_ADMIN or MANAGER
                 .requestMatchers("/api/admin/**")
                     .hasAnyRole("SUPER_ADMIN", "MANAGER")
@@ -154,4 +160,22 @@ public class SecurityConfig {
 
         return http.build();
     }
+
+    /**
+     * Offline Gemini stub, only exists with profile "gemini-stub" (never in production)
+     */
+    @Bean
+    @Order(1)
+    @Profile("gemini-stub")
+    public SecurityFilterChain geminiStubFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/stub/gemini/**")
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(session ->
+                session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+            )
+            .authorizeHttpRequests(auth -> auth.anyRequest().permitAll());
+
+        return http.build();
+    }
 }
\ No newline at end of file
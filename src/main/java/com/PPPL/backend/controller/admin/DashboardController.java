@@ -16,6 +16,28 @@ public class DashboardController {
     @Autowired
     private DashboardService dashboardService;
 
+    /**
+     * Endpoint to get all dashboard views (monthly, trend, conversion, recent activities) in one call.
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<ApiResponse<DashboardSummary>> getDashboardSummary(
+            @RequestParam(defaultValue = "6") int months,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        DashboardSummary summary = dashboardService.getDashboardSummary(months, limit);
+        return ResponseEntity.ok(ApiResponse.success(summary));
+    }
+
+    /**
+     * Endpoint to get current month counters (initial state for /topic/admin/dashboard deltas).
+     */
+    @GetMapping("/current-month")
+    public ResponseEntity<ApiResponse<CurrentMonthStats>> getCurrentMonthStats() {
+        
+        CurrentMonthStats stats = dashboardService.getCurrentMonthStats();
+        return ResponseEntity.ok(ApiResponse.success(stats));
+    }
+
     /**
      * Endpoint to get monthly lead statistics categorized by priority scores.
      */
@@ -61,6 +83,46 @@ public class DashboardController {
     }
 
     // Data Transfer Objects (DTOs) for API responses
+    public static class DashboardSummary {
+        public MonthlyLeadStats monthlyLeadStats;
+        public LeadTrendStats leadTrend;
+        public ConversionStats conversionRate;
+        public List<ActivityData> recentActivities;
+
+        public DashboardSummary(MonthlyLeadStats monthlyLeadStats, LeadTrendStats leadTrend,
+                                ConversionStats conversionRate, List<ActivityData> recentActivities) {
+            this.monthlyLeadStats = monthlyLeadStats;
+            this.leadTrend = leadTrend;
+            this.conversionRate = conversionRate;
+            this.recentActivities = recentActivities;
+        }
+    }
+
+    public static class CurrentMonthStats {
+        public String month;
+        public Map<String, Long> counters;
+
+        public CurrentMonthStats(String month, Map<String, Long> counters) {
+            this.month = month;
+            this.counters = counters;
+        }
+    }
+
+    public static class DashboardDelta {
+        public String month;
+        public Map<String, Long> changes;
+        public Map<String, Long> counters;
+        public Date timestamp;
+
+        public DashboardDelta(String month, Map<String, Long> changes,
+                              Map<String, Long> counters, Date timestamp) {
+            this.month = month;
+            this.changes = changes;
+            this.counters = counters;
+            this.timestamp = timestamp;
+        }
+    }
+
     public static class MonthlyLeadStats {
         public List<MonthData> data;
         public MonthlyLeadStats(List<MonthData> data) {
@@ -12,6 +12,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin/karyawan")
@@ -33,10 +34,13 @@ public class KaryawanController {
      * Search karyawan
      */
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<KaryawanDTO>>> searchKaryawan(
+    public ResponseEntity<ApiResponse<Map<String, Object>>> searchKaryawan(
             @RequestParam(required = false) String keyword,
-            @RequestParam(required = false) Integer idManager) {
-        List<KaryawanDTO> result = karyawanService.searchKaryawan(keyword, idManager);
+            @RequestParam(required = false) Integer idManager,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort) {
+        Map<String, Object> result = karyawanService.searchKaryawan(keyword, idManager, page, size, sort);
         return ResponseEntity.ok(ApiResponse.success(result));
     }
 
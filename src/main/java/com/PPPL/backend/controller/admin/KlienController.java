@@ -12,7 +12,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin/klien")
@@ -21,19 +21,24 @@ public class KlienController {
     @Autowired
     private KlienService klienService;
 
-    // Get all klien
+    // Get all verified klien (paginated)
     @GetMapping
-    public ResponseEntity<ApiResponse<List<KlienDTO>>> getAllKlien() {
-        return ResponseEntity.ok(ApiResponse.success(klienService.getAllKlien()));
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAllKlien(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.success(klienService.getAllKlien(page, size)));
     }
 
     // Search klien by keyword &/ status
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<KlienDTO>>> searchKlien(
+    public ResponseEntity<ApiResponse<Map<String, Object>>> searchKlien(
             @RequestParam(required = false) String keyword,
-            @RequestParam(required = false) StatusKlien status) {
+            @RequestParam(required = false) StatusKlien status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort) {
         return ResponseEntity.ok(ApiResponse.success(
-            klienService.searchKlien(keyword, status)));
+            klienService.searchKlien(keyword, status, page, size, sort)));
     }
 
     // Get klien by ID
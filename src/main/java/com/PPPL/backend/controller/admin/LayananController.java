@@ -13,6 +13,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin/layanan")
@@ -29,11 +30,14 @@ public class LayananController {
 
     // Search layanan by keyword &/ kategori
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<LayananDTO>>> searchLayanan(
+    public ResponseEntity<ApiResponse<Map<String, Object>>> searchLayanan(
             @RequestParam(required = false) String keyword,
-            @RequestParam(required = false) KategoriLayanan kategori) {
+            @RequestParam(required = false) KategoriLayanan kategori,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort) {
         return ResponseEntity.ok(ApiResponse.success(
-            layananService.searchLayanan(keyword, kategori)));
+            layananService.searchLayanan(keyword, kategori, page, size, sort)));
     }
 
     // Get layanan by kategori
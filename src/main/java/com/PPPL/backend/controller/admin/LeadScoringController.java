@@ -2,14 +2,19 @@ package com.PPPL.backend.controller.admin;
 
 import com.PPPL.backend.data.common.ApiResponse;
 import com.PPPL.backend.data.lead.LeadAnalysisDTO;
+import com.PPPL.backend.data.lead.LeadJobEventDTO;
 import com.PPPL.backend.data.lead.LeadScoringResponse;
 import com.PPPL.backend.security.JwtUtil;
 import com.PPPL.backend.service.admin.LeadScoringService;
 import com.PPPL.backend.service.admin.LeadScoringService.*;
+import com.PPPL.backend.util.ExportWriter;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
 import java.util.List;
 
@@ -45,10 +50,37 @@ public class LeadScoringController {
     }
 
     /**
-     * Batch analyze all unanalyzed leads
+     * Batch analyze all unanalyzed leads as background job, returns job id immediately (202)
+     * Progress pushed to /topic/admin/lead-jobs/{jobId}
      * Rate Limited: 15 requests per 2 minutes
      */
-    @PostMapping("/analyze-all")
+    @PostMapping({"/analyze-all", "/analyze-all/jobs"})
+    public ResponseEntity<ApiResponse<LeadJobStarted>> startBatchAnalysisJob(
+            @RequestHeader("Authorization") String authHeader) {
+        
+        Integer adminId = extractAdminId(authHeader);
+        LeadJobStarted job = leadScoringService.startBatchAnalysisJob(adminId);
+
+        String message;
+        if (job.alreadyRunning) {
+            message = "Batch analysis sedang berjalan (job " + job.jobId + ")";
+        } else if (job.totalPending == 0) {
+            message = "Tidak ada lead yang perlu dianalisa";
+        } else {
+            message = "Batch analysis dimulai untuk " + job.totalPending + " lead";
+        }
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .body(ApiResponse.success(message, job));
+    }
+
+    /**
+     * Batch analyze all unanalyzed leads, blocks until the whole batch is done
+     * Rate Limited: 15 requests per 2 minutes
+     * @deprecated use POST /analyze-all (background job), kept for old clients
+     */
+    @Deprecated
+    @PostMapping("/analyze-all/sync")
     public ResponseEntity<ApiResponse<BatchAnalysisResult>> analyzeAllPendingLeads(
             @RequestHeader("Authorization") String authHeader) {
         
@@ -61,13 +93,19 @@ public class LeadScoringController {
         } else if (result.rateLimitedCount > 0) {
             message = String.format(
                 "Batch analysis dihentikan karena rate limit. " +
-                "Berhasil: %d, Gagal: %d, Belum diproses: %d",
-                result.successCount, result.failedCount, result.rateLimitedCount
+                "Berhasil: %d, Gagal: %d, Dilewati: %d, Belum diproses: %d",
+                result.successCount, result.failedCount, result.skippedCount, result.rateLimitedCount
+            );
+        } else if (result.unavailableCount > 0) {
+            message = String.format(
+                "Batch analysis dihentikan karena Gemini tidak tersedia. " +
+                "Berhasil: %d, Gagal: %d, Dilewati: %d, Belum diproses: %d",
+                result.successCount, result.failedCount, result.skippedCount, result.unavailableCount
             );
         } else {
             message = String.format(
-                "Batch analysis selesai! Berhasil: %d, Gagal: %d dari %d lead",
-                result.successCount, result.failedCount, result.totalPending
+                "Batch analysis selesai! Berhasil: %d, Gagal: %d, Dilewati: %d dari %d lead",
+                result.successCount, result.failedCount, result.skippedCount, result.totalPending
             );
         }
 
@@ -75,6 +113,17 @@ public class LeadScoringController {
             .body(ApiResponse.success(message, result));
     }
 
+    /**
+     * Get latest state of background analysis job
+     */
+    @GetMapping("/analyze-all/jobs/{jobId}")
+    public ResponseEntity<ApiResponse<LeadJobEventDTO>> getBatchAnalysisJob(
+            @PathVariable String jobId) {
+        
+        LeadJobEventDTO state = leadScoringService.getBatchAnalysisJob(jobId);
+        return ResponseEntity.ok(ApiResponse.success(state));
+    }
+
     /**
      * Get all leads with analysis results (for dashboard)
      * CACHED: 5 minutes
@@ -97,6 +146,24 @@ public class LeadScoringController {
         return ResponseEntity.ok(ApiResponse.success(results));
     }
 
+    /**
+     * Export leads as CSV / NDJSON, streamed from a database cursor (optional priority filter)
+     */
+    @GetMapping("/results/export")
+    public WebAsyncTask<Void> exportLeads(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String priority,
+            HttpServletResponse response) {
+
+        if (priority != null && !priority.equals("HOT") && !priority.equals("WARM") && !priority.equals("COLD")) {
+            throw new IllegalArgumentException("Priority harus HOT, WARM, atau COLD");
+        }
+
+        ExportWriter.Format exportFormat = ExportWriter.Format.from(format);
+        return ExportWriter.download(response, exportFormat, "leads",
+            out -> leadScoringService.exportLeads(priority, exportFormat, out));
+    }
+
     /**
      * Get statistics for dashboard
      * CACHED: 5 minutes
@@ -12,6 +12,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin/manager")
@@ -28,11 +29,14 @@ public class ManagerController {
 
     // Search managers by keyword &/ divisi
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<ManagerDTO>>> searchManagers(
+    public ResponseEntity<ApiResponse<Map<String, Object>>> searchManagers(
             @RequestParam(required = false) String keyword,
-            @RequestParam(required = false) String divisi) {
+            @RequestParam(required = false) String divisi,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String sort) {
         return ResponseEntity.ok(ApiResponse.success(
-            managerService.searchManagers(keyword, divisi)));
+            managerService.searchManagers(keyword, divisi, page, size, sort)));
     }
 
     // Get list of divisi
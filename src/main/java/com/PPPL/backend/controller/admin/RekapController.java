@@ -2,18 +2,22 @@ package com.PPPL.backend.controller.admin;
 
 import com.PPPL.backend.data.common.ApiResponse;
 import com.PPPL.backend.data.rekap.RekapDTO;
+import com.PPPL.backend.data.rekap.RekapNoteDTO;
 import com.PPPL.backend.model.enums.StatusRekap;
 import com.PPPL.backend.security.AuthUser;
 import com.PPPL.backend.service.rekap.RekapService;
+import com.PPPL.backend.util.ExportWriter;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
-import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin/rekap")
@@ -23,35 +27,55 @@ public class RekapController {
     @Autowired
     private RekapService rekapService;
 
-    // Get all rekap
+    // Get all rekap (cursor paginated, newest meeting first)
     @GetMapping
-    public ResponseEntity<ApiResponse<List<RekapDTO>>> getAllRekap() {
-        return ResponseEntity.ok(ApiResponse.success(rekapService.getAllRekap()));
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAllRekap(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.success(rekapService.getAllRekap(cursor, size)));
     }
 
-    // Search rekap by keyword &/ status
+    // Search rekap by keyword &/ status (paginated)
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<RekapDTO>>> searchRekap(
+    public ResponseEntity<ApiResponse<Map<String, Object>>> searchRekap(
             @RequestParam(required = false) String keyword,
-            @RequestParam(required = false) StatusRekap status) {
+            @RequestParam(required = false) StatusRekap status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
         return ResponseEntity.ok(ApiResponse.success(
-            rekapService.searchRekap(keyword, status)));
+            rekapService.searchRekap(keyword, status, page, size)));
     }
 
-    // Get rekap by klien ID
+    // Get rekap by klien ID (cursor paginated)
     @GetMapping("/klien/{idKlien}")
-    public ResponseEntity<ApiResponse<List<RekapDTO>>> getRekapByKlien(
-            @PathVariable Integer idKlien) {
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getRekapByKlien(
+            @PathVariable Integer idKlien,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
         return ResponseEntity.ok(ApiResponse.success(
-            rekapService.getRekapByKlien(idKlien)));
+            rekapService.getRekapByKlien(idKlien, cursor, size)));
     }
 
-    // Get rekap by manager ID
+    // Get rekap by manager ID (cursor paginated)
     @GetMapping("/manager/{idManager}")
-    public ResponseEntity<ApiResponse<List<RekapDTO>>> getRekapByManager(
-            @PathVariable Integer idManager) {
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getRekapByManager(
+            @PathVariable Integer idManager,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
         return ResponseEntity.ok(ApiResponse.success(
-            rekapService.getRekapByManager(idManager)));
+            rekapService.getRekapByManager(idManager, cursor, size)));
+    }
+
+    // Export rekap as CSV / NDJSON (streamed from a database cursor)
+    @GetMapping("/export")
+    public WebAsyncTask<Void> exportRekap(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) Integer idKlien,
+            @RequestParam(required = false) Integer idManager,
+            HttpServletResponse response) {
+        ExportWriter.Format exportFormat = ExportWriter.Format.from(format);
+        return ExportWriter.download(response, exportFormat, "rekap",
+            out -> rekapService.exportRekap(idKlien, idManager, exportFormat, out));
     }
 
     // Get rekap by ID
@@ -60,6 +84,27 @@ public class RekapController {
         return ResponseEntity.ok(ApiResponse.success(rekapService.getRekapById(id)));
     }
 
+    // Get notes of a rekap (paginated, newest first)
+    @GetMapping("/{id}/notes")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getCatatanRekap(
+            @PathVariable Integer id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ApiResponse.success(
+            rekapService.getCatatanRekap(id, page, size)));
+    }
+
+    // Add note to a rekap
+    @PostMapping("/{id}/notes")
+    public ResponseEntity<ApiResponse<RekapNoteDTO>> tambahCatatan(
+            @PathVariable Integer id,
+            @Valid @RequestBody RekapNoteDTO dto) {
+        AuthUser auth = AuthUser.fromContext();
+        RekapNoteDTO created = rekapService.tambahCatatan(id, dto.getIsi().trim(), auth.username());
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .body(ApiResponse.success("Catatan berhasil ditambahkan", created));
+    }
+
     // Create new rekap
     @PostMapping
     public ResponseEntity<ApiResponse<RekapDTO>> createRekap(
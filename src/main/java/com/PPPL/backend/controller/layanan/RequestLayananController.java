@@ -4,11 +4,10 @@ import com.PPPL.backend.data.common.ApiResponse;
 import com.PPPL.backend.data.layanan.RequestLayananDTO;
 import com.PPPL.backend.data.layanan.RequestLayananDetailDTO;
 import com.PPPL.backend.data.layanan.RequestLayananStatisticsDTO;
-import com.PPPL.backend.model.admin.Klien;
 import com.PPPL.backend.model.enums.StatusRequest;
 import com.PPPL.backend.model.layanan.RequestLayanan;
-import com.PPPL.backend.repository.client.KlienRepository;
 import com.PPPL.backend.security.AuthUser;
+import com.PPPL.backend.service.admin.KlienService;
 import com.PPPL.backend.service.layanan.RequestLayananService;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -27,7 +27,7 @@ public class RequestLayananController {
     private RequestLayananService requestLayananService;
 
     @Autowired
-    private KlienRepository klienRepository;
+    private KlienService klienService;
 
     @GetMapping
     public ResponseEntity<ApiResponse<List<RequestLayananDTO>>> getAll() {
@@ -66,9 +66,11 @@ public class RequestLayananController {
     }
 
     @GetMapping("/active-klien")
-    public ResponseEntity<ApiResponse<List<Klien>>> getActiveKlien() {
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getActiveKlien(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
         return ResponseEntity.ok(ApiResponse.success(
-                klienRepository.findKlienYangTerverifikasi()
+                klienService.getAllKlien(page, size)
         ));
     }
 
@@ -0,0 +1,217 @@
+package com.PPPL.backend.controller.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Offline stand-in for Gemini generateContent (profile "gemini-stub").
+ * Log-normal latency, 503/429 error rates, MAX_TOKENS truncation and replay of recorded responses.
+ * Recordings are split into single / batch (by the candidate text) and replayed for the same call type;
+ * batch recordings get the idRequests of the incoming prompt so the service can match the results.
+ * Point google.gemini.base-url at http://localhost:{port}/stub/gemini/v1beta/models/
+ */
+@RestController
+@RequestMapping("/stub/gemini/v1beta/models")
+@Profile("gemini-stub")
+@Slf4j
+public class GeminiStubController {
+
+    private static final Pattern ID_REQUEST = Pattern.compile("idRequest=(\\d+)");
+    private static final String[] PRIORITIES = {"HOT", "WARM", "COLD"};
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${gemini.stub.latency.median-ms:800}")
+    private double latencyMedianMillis;
+
+    @Value("${gemini.stub.latency.p99-ms:4000}")
+    private double latencyP99Millis;
+
+    @Value("${gemini.stub.error-rate:0.0}")
+    private double errorRate;
+
+    @Value("${gemini.stub.rate-limit-rate:0.0}")
+    private double rateLimitRate;
+
+    @Value("${gemini.stub.max-tokens-rate:0.0}")
+    private double maxTokensRate;
+
+    private final List<JsonNode> replaySingle = new ArrayList<>();
+    private final List<JsonNode> replayBatch = new ArrayList<>();
+    private final AtomicInteger replayIndex = new AtomicInteger();
+
+    public GeminiStubController(
+            ObjectMapper objectMapper,
+            @Value("${gemini.stub.replay-dir:}") String replayDir) throws IOException {
+        this.objectMapper = objectMapper;
+
+        if (!replayDir.isBlank()) {
+            try (Stream<Path> files = Files.list(Path.of(replayDir))) {
+                for (Path file : files.filter(f -> f.toString().endsWith(".json")).sorted().toList()) {
+                    JsonNode recorded = objectMapper.readTree(Files.readString(file));
+                    String text = candidateText(recorded).stripLeading();
+                    (text.startsWith("[") ? replayBatch : replaySingle).add(recorded);
+                }
+            }
+            log.info("Gemini stub replaying {} single / {} batch recorded responses from {}",
+                replaySingle.size(), replayBatch.size(), replayDir);
+        }
+    }
+
+    @PostMapping(value = "/{model}:generateContent", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> generateContent(
+            @PathVariable String model,
+            @RequestBody JsonNode body) throws Exception {
+
+        Thread.sleep(sampleLatencyMillis());
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < errorRate) {
+            return error(HttpStatus.SERVICE_UNAVAILABLE, "UNAVAILABLE", "The model is overloaded.");
+        }
+        if (random.nextDouble() < rateLimitRate) {
+            return error(HttpStatus.TOO_MANY_REQUESTS, "RESOURCE_EXHAUSTED", "Quota exceeded.");
+        }
+
+        String prompt = body.at("/contents/0/parts/0/text").asText("");
+        boolean batch = "ARRAY".equals(body.at("/generationConfig/responseSchema/type").asText());
+
+        List<JsonNode> recordings = batch ? replayBatch : replaySingle;
+        if (!recordings.isEmpty()) {
+            JsonNode recorded = recordings.get(Math.floorMod(replayIndex.getAndIncrement(), recordings.size()));
+            return ResponseEntity.ok(objectMapper.writeValueAsString(
+                batch ? withPromptIds(recorded, prompt) : recorded));
+        }
+
+        String text = batch ? batchText(prompt) : objectMapper.writeValueAsString(lead(null, prompt.hashCode()));
+        String finishReason = "STOP";
+        if (random.nextDouble() < maxTokensRate) {
+            text = text.substring(0, text.length() / 2);
+            finishReason = "MAX_TOKENS";
+        }
+
+        return ResponseEntity.ok(objectMapper.writeValueAsString(response(model, prompt, text, finishReason)));
+    }
+
+    // Private Helper Methods
+
+    /**
+     * Log-normal latency from median & p99 (z 0.99 = 2.326)
+     */
+    private long sampleLatencyMillis() {
+        double sigma = Math.log(Math.max(latencyP99Millis, latencyMedianMillis) / latencyMedianMillis) / 2.326;
+        double sample = Math.exp(Math.log(latencyMedianMillis) + sigma * ThreadLocalRandom.current().nextGaussian());
+        return Math.round(sample);
+    }
+
+    private String batchText(String prompt) throws IOException {
+        List<Map<String, Object>> leads = new ArrayList<>();
+        for (int idRequest : promptIds(prompt)) {
+            leads.add(lead(idRequest, idRequest));
+        }
+        return objectMapper.writeValueAsString(leads);
+    }
+
+    private List<Integer> promptIds(String prompt) {
+        List<Integer> ids = new ArrayList<>();
+        Matcher matcher = ID_REQUEST.matcher(prompt);
+        while (matcher.find()) {
+            ids.add(Integer.parseInt(matcher.group(1)));
+        }
+        return ids;
+    }
+
+    private String candidateText(JsonNode response) {
+        return response.at("/candidates/0/content/parts/0/text").asText("");
+    }
+
+    /**
+     * Rebuild a recorded batch answer for the prompt's ids: one recorded entry per id (cycled),
+     * idRequest overwritten. Truncated recordings (not a JSON array) are replayed unchanged.
+     */
+    private JsonNode withPromptIds(JsonNode recorded, String prompt) {
+        JsonNode entries;
+        try {
+            entries = objectMapper.readTree(candidateText(recorded));
+        } catch (IOException e) {
+            return recorded;
+        }
+        if (!entries.isArray() || entries.isEmpty()) {
+            return recorded;
+        }
+
+        ArrayNode leads = objectMapper.createArrayNode();
+        List<Integer> ids = promptIds(prompt);
+        for (int i = 0; i < ids.size(); i++) {
+            if (!(entries.get(i % entries.size()) instanceof ObjectNode entry)) {
+                return recorded;
+            }
+            ObjectNode lead = entry.deepCopy();
+            lead.put("idRequest", ids.get(i));
+            leads.add(lead);
+        }
+
+        ObjectNode response = recorded.deepCopy();
+        ObjectNode part = (ObjectNode) response.at("/candidates/0/content/parts/0");
+        part.put("text", leads.toString());
+        return response;
+    }
+
+    private Map<String, Object> lead(Integer idRequest, int seed) {
+        String priority = PRIORITIES[Math.floorMod(seed, PRIORITIES.length)];
+
+        Map<String, Object> lead = new LinkedHashMap<>();
+        if (idRequest != null) {
+            lead.put("idRequest", idRequest);
+        }
+        lead.put("skorPrioritas", priority);
+        lead.put("kategori", "Stub");
+        lead.put("alasan", "Skor dari Gemini stub");
+        lead.put("confidence", 50 + Math.floorMod(seed, 50));
+        lead.put("rekomendasi", "Follow up sesuai prioritas " + priority);
+        return lead;
+    }
+
+    private Map<String, Object> response(String model, String prompt, String text, String finishReason) {
+        int promptTokens = prompt.length() / 4;
+        int outputTokens = text.length() / 4;
+
+        return Map.of(
+            "candidates", List.of(Map.of(
+                "content", Map.of("role", "model", "parts", List.of(Map.of("text", text))),
+                "finishReason", finishReason,
+                "index", 0)),
+            "usageMetadata", Map.of(
+                "promptTokenCount", promptTokens,
+                "candidatesTokenCount", outputTokens,
+                "totalTokenCount", promptTokens + outputTokens),
+            "modelVersion", model
+        );
+    }
+
+    private ResponseEntity<String> error(HttpStatus status, String reason, String message) throws IOException {
+        String body = objectMapper.writeValueAsString(Map.of("error", Map.of(
+            "code", status.value(), "message", message, "status", reason)));
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
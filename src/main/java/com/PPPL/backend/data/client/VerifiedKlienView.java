@@ -0,0 +1,18 @@
+package com.PPPL.backend.data.client;
+
+import java.util.Date;
+
+import com.PPPL.backend.model.enums.StatusKlien;
+
+/**
+ * Verified klien row without request / rekap / manager collections (query projection)
+ */
+public interface VerifiedKlienView {
+    Integer getIdKlien();
+    String getNamaKlien();
+    String getEmailKlien();
+    String getNoTelp();
+    StatusKlien getStatus();
+    Date getTglRequest();
+    String getLastApprovedBy();
+}
@@ -0,0 +1,16 @@
+package com.PPPL.backend.data.layanan;
+
+/**
+ * Per-month request_layanan counts (native query projection, month = 'YYYY-MM')
+ */
+public interface RequestMonthlyAggregate {
+    String getMonth();
+    long getTotal();
+    long getHot();
+    long getWarm();
+    long getCold();
+    long getUnscored();
+    long getVerified();
+    long getRejected();
+    long getPending();
+}
@@ -0,0 +1,23 @@
+package com.PPPL.backend.data.lead;
+
+import java.util.Date;
+
+import com.PPPL.backend.model.enums.StatusRequest;
+
+/**
+ * Lead row for CSV / NDJSON export (query projection, streamed)
+ */
+public interface LeadExportView {
+    Integer getIdRequest();
+    String getNamaKlien();
+    String getEmailKlien();
+    String getPerusahaan();
+    String getLayanan();
+    String getSkorPrioritas();
+    String getKategoriLead();
+    String getAlasanSkor();
+    StatusRequest getStatusRequest();
+    Date getTglRequest();
+    Date getTglAnalisaAi();
+    Boolean getAiAnalyzed();
+}
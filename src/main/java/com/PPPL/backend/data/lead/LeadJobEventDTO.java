@@ -0,0 +1,24 @@
+package com.PPPL.backend.data.lead;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeadJobEventDTO {
+    private String jobId;
+    private String type; // STARTED, PROGRESS, COMPLETED, FAILED
+    private Integer idRequest;
+    private String skorPrioritas;
+    private int processed;
+    private int total;
+    private int successCount;
+    private int failedCount;
+    private int skippedCount; // claimed by the new-lead consumer
+    private int rateLimitedCount; // not processed, admin rate limit
+    private int unavailableCount; // not processed, Gemini unavailable
+    private Date timestamp;
+}
@@ -0,0 +1,18 @@
+package com.PPPL.backend.data.lead;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * RabbitMQ message: lead waiting for background scoring
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeadScoringTaskDTO {
+    private Integer idRequest;
+    private Date enqueuedAt;
+}
@@ -0,0 +1,13 @@
+package com.PPPL.backend.data.lead;
+
+import java.util.Date;
+
+/**
+ * Recent AI analysis row for the dashboard activity widget (query projection)
+ */
+public interface RecentActivityView {
+    Integer getIdRequest();
+    String getNamaKlien();
+    String getSkorPrioritas();
+    Date getTglAnalisaAi();
+}
@@ -41,4 +41,8 @@ public class RekapDTO {
 
     @Size(max = 1000, message = "Catatan maksimal 1000 karakter")
     private String catatan;
+
+    // Ringkasan catatan tambahan (rekap_note)
+    private Integer jumlahCatatan;
+    private String catatanTerakhir;
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.PPPL.backend.data.rekap;
+
+import java.util.Date;
+
+import com.PPPL.backend.model.enums.StatusRekap;
+
+/**
+ * Rekap row with klien, manager & layanan names joined in one query (list projection)
+ */
+public interface RekapListView {
+    Integer getIdMeeting();
+    Integer getIdKlien();
+    String getNamaKlien();
+    String getNamaManager();
+    Integer getIdLayanan();
+    String getNamaLayanan();
+    Date getTglMeeting();
+    String getHasil();
+    StatusRekap getStatus();
+    Integer getJumlahCatatan();
+    String getCatatanTerakhir();
+}
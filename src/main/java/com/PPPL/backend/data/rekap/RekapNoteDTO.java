@@ -0,0 +1,22 @@
+package com.PPPL.backend.data.rekap;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RekapNoteDTO {
+    private Integer idNote;
+    private Integer idMeeting;
+
+    @NotBlank(message = "Catatan wajib diisi")
+    @Size(max = 1000, message = "Catatan maksimal 1000 karakter")
+    private String isi;
+
+    private String createdBy;
+    private Date createdAt;
+}
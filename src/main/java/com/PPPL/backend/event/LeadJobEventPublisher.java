@@ -0,0 +1,64 @@
+package com.PPPL.backend.event;
+
+import com.PPPL.backend.data.lead.LeadJobEventDTO;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Slf4j
+public class LeadJobEventPublisher {
+
+    public static final String DESTINATION_PREFIX = "/topic/admin/lead-jobs/";
+
+    private static final String STATE_KEY_PREFIX = "lead_job:";
+    private static final Duration STATE_TTL = Duration.ofHours(1);
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper redisObjectMapper;
+
+    public LeadJobEventPublisher(
+            SimpMessagingTemplate messagingTemplate,
+            RedisTemplate<String, Object> redisTemplate,
+            @Qualifier("redisObjectMapper") ObjectMapper redisObjectMapper
+    ) {
+        this.messagingTemplate = messagingTemplate;
+        this.redisTemplate = redisTemplate;
+        this.redisObjectMapper = redisObjectMapper;
+    }
+
+    /**
+     * Broadcast job event ke WebSocket & simpan sebagai state terakhir job
+     */
+    public void publish(LeadJobEventDTO event) {
+        try {
+            redisTemplate.opsForValue().set(STATE_KEY_PREFIX + event.getJobId(), event, STATE_TTL);
+        } catch (Exception e) {
+            log.error("Failed to store lead job state {}: {}", event.getJobId(), e.getMessage());
+        }
+
+        try {
+            messagingTemplate.convertAndSend(DESTINATION_PREFIX + event.getJobId(), event);
+        } catch (Exception e) {
+            log.error("Failed to broadcast lead job event {}: {}", event.getJobId(), e.getMessage());
+        }
+    }
+
+    /**
+     * State terakhir job (untuk client yang subscribe terlambat)
+     */
+    public LeadJobEventDTO getLatestState(String jobId) {
+        Object value = redisTemplate.opsForValue().get(STATE_KEY_PREFIX + jobId);
+        if (value == null) {
+            return null;
+        }
+        return redisObjectMapper.convertValue(value, LeadJobEventDTO.class);
+    }
+}
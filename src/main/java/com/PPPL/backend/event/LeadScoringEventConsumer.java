@@ -0,0 +1,83 @@
+package com.PPPL.backend.event;
+
+import com.PPPL.backend.config.rabbitmq.RabbitMQConfig;
+import com.PPPL.backend.data.lead.LeadScoringResponse;
+import com.PPPL.backend.data.lead.LeadScoringTaskDTO;
+import com.PPPL.backend.service.lead.GeminiService;
+import com.PPPL.backend.service.lead.GeminiWorkScheduler;
+import com.PPPL.backend.service.lead.LeadScoringLock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@Slf4j
+public class LeadScoringEventConsumer {
+
+    public static final String DESTINATION = "/topic/admin/lead-scores";
+
+    private final GeminiService geminiService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final LeadScoringLock leadScoringLock;
+
+    public LeadScoringEventConsumer(
+            GeminiService geminiService,
+            SimpMessagingTemplate messagingTemplate,
+            LeadScoringLock leadScoringLock) {
+        this.geminiService = geminiService;
+        this.messagingTemplate = messagingTemplate;
+        this.leadScoringLock = leadScoringLock;
+    }
+
+    /**
+     * Score new lead in background & push result to admin UI
+     */
+    @RabbitListener(
+        queues = RabbitMQConfig.QUEUE_LEAD_SCORING,
+        containerFactory = "leadScoringListenerContainerFactory"
+    )
+    public void handleLeadSubmitted(LeadScoringTaskDTO task) {
+        log.info("Lead scoring queue received: {}", task.getIdRequest());
+
+        // Batch analysis already scoring this lead
+        if (!leadScoringLock.tryClaimLead(task.getIdRequest())) {
+            log.info("Lead {} claimed by batch analysis, skipped", task.getIdRequest());
+            return;
+        }
+
+        try {
+            LeadScoringResponse result = GeminiWorkScheduler.withLane(
+                GeminiWorkScheduler.Lane.NEW_SUBMISSION, () -> geminiService.analyzeNewLead(task.getIdRequest()));
+            if (result == null) {
+                log.info("Lead {} already analyzed or removed, skipped", task.getIdRequest());
+                return;
+            }
+
+            if ("ERROR".equals(result.getSkorPrioritas())) {
+                // Lead stays pending, picked up by batch analysis
+                log.warn("Background scoring of lead {} failed: {}", task.getIdRequest(), result.getAlasan());
+                return;
+            }
+
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("idRequest", task.getIdRequest());
+            payload.put("skorPrioritas", result.getSkorPrioritas());
+            payload.put("kategori", result.getKategori());
+            payload.put("confidence", result.getConfidence());
+            messagingTemplate.convertAndSend(DESTINATION, payload);
+
+            log.info("Lead {} scored in background as {}", task.getIdRequest(), result.getSkorPrioritas());
+
+        } catch (Exception e) {
+            log.error("Error scoring lead {}: {}", task.getIdRequest(), e.getMessage(), e);
+
+        } finally {
+            leadScoringLock.releaseLead(task.getIdRequest());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.PPPL.backend.event;
+
+import com.PPPL.backend.config.rabbitmq.RabbitMQConfig;
+import com.PPPL.backend.data.lead.LeadScoringTaskDTO;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+
+@Component
+@Slf4j
+public class LeadScoringEventPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+
+    @Value("${lead-scoring.auto.enabled:true}")
+    private boolean enabled;
+
+    public LeadScoringEventPublisher(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    /**
+     * Enqueue new lead for background scoring, sent after the surrounding transaction commits
+     */
+    public void publishLeadSubmitted(Integer idRequest) {
+        if (!enabled) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(idRequest);
+                }
+            });
+        } else {
+            send(idRequest);
+        }
+    }
+
+    private void send(Integer idRequest) {
+        try {
+            rabbitTemplate.convertAndSend(
+                    RabbitMQConfig.EXCHANGE_LEAD,
+                    RabbitMQConfig.ROUTING_KEY_LEAD_SCORING,
+                    new LeadScoringTaskDTO(idRequest, new Date())
+            );
+            log.info("Published lead {} to scoring queue", idRequest);
+        } catch (Exception e) {
+            // Lead stays pending, picked up by batch analysis
+            log.error("Failed to publish lead {} for scoring: {}", idRequest, e.getMessage());
+        }
+    }
+}
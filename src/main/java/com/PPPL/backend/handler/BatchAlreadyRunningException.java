@@ -0,0 +1,14 @@
+package com.PPPL.backend.handler;
+
+public class BatchAlreadyRunningException extends RuntimeException {
+    private final String jobId;
+
+    public BatchAlreadyRunningException(String message, String jobId) {
+        super(message);
+        this.jobId = jobId;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+}
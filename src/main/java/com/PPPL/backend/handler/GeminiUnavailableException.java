@@ -0,0 +1,7 @@
+package com.PPPL.backend.handler;
+
+public class GeminiUnavailableException extends RuntimeException {
+    public GeminiUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -104,7 +104,38 @@ public class GlobalExceptionHandler {
             .header("Retry-After", String.valueOf(ex.getRetryAfterSeconds()))
             .body(ApiResponse.error(ex.getMessage()));
     }
-    
+
+    /**
+     * Handle Gemini unavailable (quota wait exceeded / worker pool full)
+     */
+    @ExceptionHandler(GeminiUnavailableException.class)
+    public ResponseEntity<ApiResponse<Object>> handleGeminiUnavailableException(
+            GeminiUnavailableException ex) {
+
+        log.warn("Gemini unavailable: {}", ex.getMessage());
+
+        return ResponseEntity
+            .status(HttpStatus.SERVICE_UNAVAILABLE)
+            .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    /**
+     * Handle batch analysis already running, returns the running jobId
+     */
+    @ExceptionHandler(BatchAlreadyRunningException.class)
+    public ResponseEntity<ApiResponse<Object>> handleBatchAlreadyRunningException(
+            BatchAlreadyRunningException ex) {
+
+        log.warn("Batch already running: {}", ex.getMessage());
+
+        Map<String, String> data = new HashMap<>();
+        data.put("jobId", ex.getJobId());
+
+        return ResponseEntity
+            .status(HttpStatus.CONFLICT)
+            .body(new ApiResponse<>(false, ex.getMessage(), data));
+    }
+
     /**
      * Handle runtime exceptions
      */
@@ -0,0 +1,48 @@
+package com.PPPL.backend.model.layanan;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.Date;
+
+@Entity
+@Table(name = "request_layanan_monthly_rollup")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequestLayananMonthlyRollup {
+
+    @Id
+    @Column(name = "month")
+    @Temporal(TemporalType.DATE)
+    private Date month; // Hari pertama bulan tgl_request
+
+    @Column(name = "total", nullable = false)
+    private Long total = 0L;
+
+    @Column(name = "hot", nullable = false)
+    private Long hot = 0L;
+
+    @Column(name = "warm", nullable = false)
+    private Long warm = 0L;
+
+    @Column(name = "cold", nullable = false)
+    private Long cold = 0L;
+
+    @Column(name = "unscored", nullable = false)
+    private Long unscored = 0L;
+
+    @Column(name = "verified", nullable = false)
+    private Long verified = 0L;
+
+    @Column(name = "rejected", nullable = false)
+    private Long rejected = 0L;
+
+    @Column(name = "pending", nullable = false)
+    private Long pending = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date updatedAt;
+}
@@ -0,0 +1,55 @@
+package com.PPPL.backend.model.lead;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.Date;
+
+@Entity
+@Table(name = "lead_score_fingerprint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeadScoreFingerprint {
+
+    @Id
+    @Column(name = "fingerprint", length = 64)
+    private String fingerprint; // SHA-256 hex dari input lead yang dinormalisasi
+
+    @Column(name = "skor_prioritas", nullable = false, length = 20)
+    private String skorPrioritas;
+
+    @Column(name = "kategori_lead", length = 50)
+    private String kategoriLead;
+
+    @Column(name = "alasan_skor", columnDefinition = "TEXT")
+    private String alasanSkor;
+
+    @Column(name = "confidence")
+    private Integer confidence;
+
+    @Column(name = "rekomendasi", columnDefinition = "TEXT")
+    private String rekomendasi;
+
+    @Column(name = "hit_count", nullable = false)
+    private Integer hitCount = 0;
+
+    @Column(name = "created_at", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date createdAt;
+
+    @Column(name = "last_used_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lastUsedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = new Date();
+        }
+        if (hitCount == null) {
+            hitCount = 0;
+        }
+    }
+}
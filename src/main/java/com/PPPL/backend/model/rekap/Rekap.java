@@ -51,4 +51,11 @@ public class Rekap {
     
     @Column(name = "catatan", columnDefinition = "TEXT")
     private String catatan;
+
+    // Ringkasan rekap_note, hanya diubah lewat RekapRepository.recordNote
+    @Column(name = "jumlah_catatan", insertable = false, updatable = false)
+    private Integer jumlahCatatan = 0;
+
+    @Column(name = "catatan_terakhir", columnDefinition = "TEXT", insertable = false, updatable = false)
+    private String catatanTerakhir;
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.PPPL.backend.model.rekap;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.Date;
+
+@Entity
+@Table(name = "rekap_note")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RekapNote {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id_note")
+    private Integer idNote;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_meeting", nullable = false, updatable = false)
+    private Rekap rekap;
+
+    @Column(name = "isi", columnDefinition = "TEXT", nullable = false, updatable = false)
+    private String isi;
+
+    @Column(name = "created_by", length = 100, updatable = false)
+    private String createdBy;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = new Date();
+        }
+    }
+}
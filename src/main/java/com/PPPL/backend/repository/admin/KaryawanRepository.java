@@ -1,6 +1,7 @@
 package com.PPPL.backend.repository.admin;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 import com.PPPL.backend.model.admin.Karyawan;
@@ -9,7 +10,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface KaryawanRepository extends JpaRepository<Karyawan, Integer> {
+public interface KaryawanRepository extends JpaRepository<Karyawan, Integer>, JpaSpecificationExecutor<Karyawan> {
     
     Optional<Karyawan> findByEmailKaryawan(String emailKaryawan);
     
@@ -1,26 +1,43 @@
 package com.PPPL.backend.repository.client;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import com.PPPL.backend.data.client.VerifiedKlienView;
 import com.PPPL.backend.model.admin.Klien;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface KlienRepository extends JpaRepository<Klien, Integer> {
+public interface KlienRepository extends JpaRepository<Klien, Integer>, JpaSpecificationExecutor<Klien>,
+        KlienSearchRepository {
     
     Optional<Klien> findByEmailKlien(String emailKlien);
     
-    @Query("""
-    SELECT DISTINCT k FROM Klien k
-    JOIN k.requestLayananSet r
-    WHERE r.status = 'VERIFIKASI'
-    AND (k.isDeleted = false OR k.isDeleted IS NULL)
+    /**
+     * Verified, non-deleted klien as flat rows (EXISTS instead of joining every request)
+     */
+    @Query(value = """
+    SELECT k.idKlien AS idKlien, k.namaKlien AS namaKlien, k.emailKlien AS emailKlien,
+           k.noTelp AS noTelp, k.status AS status, k.tglRequest AS tglRequest,
+           (SELECT MAX(m.namaManager) FROM Manager m JOIN m.klienSet mk
+            WHERE mk.idKlien = k.idKlien) AS lastApprovedBy
+    FROM Klien k
+    WHERE (k.isDeleted = false OR k.isDeleted IS NULL)
+    AND EXISTS (SELECT 1 FROM RequestLayanan r WHERE r.klien = k AND r.status = 'VERIFIKASI')
+    ORDER BY k.namaKlien, k.idKlien
+    """,
+    countQuery = """
+    SELECT COUNT(k) FROM Klien k
+    WHERE (k.isDeleted = false OR k.isDeleted IS NULL)
+    AND EXISTS (SELECT 1 FROM RequestLayanan r WHERE r.klien = k AND r.status = 'VERIFIKASI')
     """)
-    List<Klien> findKlienYangTerverifikasi();
+    Page<VerifiedKlienView> findKlienYangTerverifikasi(Pageable pageable);
     
     boolean existsByEmailKlien(String emailKlien);
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.PPPL.backend.repository.client;
+
+import com.PPPL.backend.data.client.KlienDTO;
+import com.PPPL.backend.model.admin.Klien;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface KlienSearchRepository {
+
+    /**
+     * Specification search straight into KlienDTO, lastApprovedBy as scalar subquery
+     * (one page query + one count query, no lazy managerSet per row)
+     */
+    Page<KlienDTO> searchWithLastApprover(Specification<Klien> spec, Pageable pageable);
+}
@@ -0,0 +1,73 @@
+package com.PPPL.backend.repository.client;
+
+import com.PPPL.backend.data.client.KlienDTO;
+import com.PPPL.backend.model.admin.Klien;
+import com.PPPL.backend.model.admin.Manager;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+public class KlienSearchRepositoryImpl implements KlienSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<KlienDTO> searchWithLastApprover(Specification<Klien> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<KlienDTO> query = cb.createQuery(KlienDTO.class);
+        Root<Klien> klien = query.from(Klien.class);
+
+        // Same rule as findKlienYangTerverifikasi: MAX(namaManager) over the approving managers
+        Subquery<String> lastApprovedBy = query.subquery(String.class);
+        Root<Manager> manager = lastApprovedBy.from(Manager.class);
+        Join<Manager, Klien> managedKlien = manager.join("klienSet");
+        lastApprovedBy.select(cb.greatest(manager.<String>get("namaManager")))
+            .where(cb.equal(managedKlien.get("idKlien"), klien.get("idKlien")));
+
+        query.select(cb.construct(KlienDTO.class,
+            klien.get("idKlien"), klien.get("namaKlien"), klien.get("emailKlien"),
+            klien.get("noTelp"), klien.get("status"), klien.get("tglRequest"), lastApprovedBy));
+        Predicate predicate = spec.toPredicate(klien, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), klien, cb));
+
+        List<KlienDTO> content = entityManager.createQuery(query)
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize())
+            .getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    // Private Helper Methods
+
+    private long count(Specification<Klien> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Klien> klien = query.from(Klien.class);
+        query.select(cb.count(klien));
+        Predicate predicate = spec.toPredicate(klien, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
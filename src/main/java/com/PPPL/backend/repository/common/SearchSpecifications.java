@@ -0,0 +1,97 @@
+package com.PPPL.backend.repository.common;
+
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Reusable filter building blocks for admin list search (JpaSpecificationExecutor).
+ * Every factory returns null for an empty filter so it can be passed straight to
+ * Specification.allOf. Attributes may be nested ("manager.idManager").
+ */
+public final class SearchSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private SearchSpecifications() {
+    }
+
+    /**
+     * Keyword contained in any of the attributes, case-insensitive (ILIKE, pg_trgm indexed)
+     */
+    public static <T> Specification<T> keyword(String keyword, String... attributes) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return null;
+        }
+        String pattern = "%" + escapeLike(keyword.trim()) + "%";
+
+        return (root, query, cb) -> {
+            HibernateCriteriaBuilder hcb = (HibernateCriteriaBuilder) cb;
+            Predicate[] matches = Arrays.stream(attributes)
+                .map(attribute -> hcb.ilike(SearchSpecifications.<String>path(root, attribute), pattern, LIKE_ESCAPE))
+                .toArray(Predicate[]::new);
+            return cb.or(matches);
+        };
+    }
+
+    public static <T> Specification<T> equal(String attribute, Object value) {
+        if (value == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(path(root, attribute), value);
+    }
+
+    public static <T> Specification<T> equalIgnoreCase(String attribute, String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        String lowered = value.trim().toLowerCase(Locale.ROOT);
+        return (root, query, cb) -> cb.equal(cb.lower(SearchSpecifications.<String>path(root, attribute)), lowered);
+    }
+
+    /**
+     * Boolean flag false or null (e.g. soft delete)
+     */
+    public static <T> Specification<T> isNotTrue(String attribute) {
+        return (root, query, cb) -> cb.or(
+            cb.isFalse(SearchSpecifications.<Boolean>path(root, attribute)),
+            cb.isNull(path(root, attribute))
+        );
+    }
+
+    /**
+     * Fetch a to-one association with the page query (skipped for the count query)
+     */
+    public static <T> Specification<T> fetch(String association) {
+        return (root, query, cb) -> {
+            if (query != null && !Long.class.equals(query.getResultType())) {
+                root.fetch(association, JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+
+    // Private Helper Methods
+
+    @SuppressWarnings("unchecked")
+    private static <Y> Path<Y> path(From<?, ?> root, String attribute) {
+        Path<?> path = root;
+        for (String part : attribute.split("\\.")) {
+            path = path.get(part);
+        }
+        return (Path<Y>) path;
+    }
+
+    private static String escapeLike(String keyword) {
+        return keyword
+            .replace("\\", "\\\\")
+            .replace("%", "\\%")
+            .replace("_", "\\_");
+    }
+}
@@ -1,6 +1,7 @@
 package com.PPPL.backend.repository.layanan;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
 import com.PPPL.backend.model.enums.KategoriLayanan;
@@ -9,7 +10,7 @@ import com.PPPL.backend.model.layanan.Layanan;
 import java.util.List;
 
 @Repository
-public interface LayananRepository extends JpaRepository<Layanan, Integer> {
+public interface LayananRepository extends JpaRepository<Layanan, Integer>, JpaSpecificationExecutor<Layanan> {
     
     List<Layanan> findByKategori(KategoriLayanan kategori);
     
@@ -0,0 +1,103 @@
+package com.PPPL.backend.repository.layanan;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.PPPL.backend.data.layanan.RequestMonthlyAggregate;
+import com.PPPL.backend.model.layanan.RequestLayananMonthlyRollup;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface RequestLayananMonthlyRollupRepository extends JpaRepository<RequestLayananMonthlyRollup, Date> {
+
+    // Postgres advisory lock keys: 7316001 = rebuild single-flight, 7316002 = delta/rebuild exclusion
+
+    // Rollup rows from the month of fromDate onwards, months without requests are absent
+    @Query(value = """
+        SELECT to_char(m.month, 'YYYY-MM') AS "month",
+               m.total AS "total", m.hot AS "hot", m.warm AS "warm", m.cold AS "cold",
+               m.unscored AS "unscored", m.verified AS "verified",
+               m.rejected AS "rejected", m.pending AS "pending"
+        FROM request_layanan_monthly_rollup m
+        WHERE m.month >= CAST(date_trunc('month', CAST(:fromDate AS timestamp)) AS date)
+        ORDER BY m.month
+        """, nativeQuery = true)
+    List<RequestMonthlyAggregate> findSince(@Param("fromDate") Date fromDate);
+
+    // Add deltas to the month of tglRequest (row created on first use).
+    // Holds lock 7316002 shared until commit, so a rebuild never runs between the request write and its delta.
+    @Modifying
+    @Transactional
+    @Query(value = """
+        WITH rebuild_guard AS (
+            SELECT 1 AS ok FROM (SELECT pg_advisory_xact_lock_shared(7316002)) l
+        )
+        INSERT INTO request_layanan_monthly_rollup
+            (month, total, hot, warm, cold, unscored, verified, rejected, pending, updated_at)
+        SELECT CAST(date_trunc('month', CAST(:tglRequest AS timestamp)) AS date),
+               :total, :hot, :warm, :cold, :unscored, :verified, :rejected, :pending, CURRENT_TIMESTAMP
+        FROM rebuild_guard
+        ON CONFLICT (month) DO UPDATE SET
+            total = request_layanan_monthly_rollup.total + EXCLUDED.total,
+            hot = request_layanan_monthly_rollup.hot + EXCLUDED.hot,
+            warm = request_layanan_monthly_rollup.warm + EXCLUDED.warm,
+            cold = request_layanan_monthly_rollup.cold + EXCLUDED.cold,
+            unscored = request_layanan_monthly_rollup.unscored + EXCLUDED.unscored,
+            verified = request_layanan_monthly_rollup.verified + EXCLUDED.verified,
+            rejected = request_layanan_monthly_rollup.rejected + EXCLUDED.rejected,
+            pending = request_layanan_monthly_rollup.pending + EXCLUDED.pending,
+            updated_at = EXCLUDED.updated_at
+        """, nativeQuery = true)
+    int applyDelta(
+        @Param("tglRequest") Date tglRequest,
+        @Param("total") long total,
+        @Param("hot") long hot,
+        @Param("warm") long warm,
+        @Param("cold") long cold,
+        @Param("unscored") long unscored,
+        @Param("verified") long verified,
+        @Param("rejected") long rejected,
+        @Param("pending") long pending
+    );
+
+    // Single rebuild across instances, false if another instance holds it (released at commit)
+    @Query(value = "SELECT pg_try_advisory_xact_lock(7316001)", nativeQuery = true)
+    boolean tryLockRebuild();
+
+    // Wait for in-flight deltas to commit and block new ones until the rebuild commits
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(7316002)) l", nativeQuery = true)
+    int lockDeltas();
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM request_layanan_monthly_rollup", nativeQuery = true)
+    int deleteAllRows();
+
+    // Recompute every month from request_layanan (reconciliation)
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT INTO request_layanan_monthly_rollup
+            (month, total, hot, warm, cold, unscored, verified, rejected, pending, updated_at)
+        SELECT CAST(date_trunc('month', r.tgl_request) AS date),
+               COUNT(*),
+               COUNT(*) FILTER (WHERE UPPER(r.skor_prioritas) = 'HOT'),
+               COUNT(*) FILTER (WHERE UPPER(r.skor_prioritas) = 'WARM'),
+               COUNT(*) FILTER (WHERE UPPER(r.skor_prioritas) = 'COLD'),
+               COUNT(*) FILTER (WHERE r.skor_prioritas IS NULL),
+               COUNT(*) FILTER (WHERE r.status = 'VERIFIKASI'),
+               COUNT(*) FILTER (WHERE r.status = 'DITOLAK'),
+               COUNT(*) FILTER (WHERE r.status = 'MENUNGGU_VERIFIKASI'),
+               CURRENT_TIMESTAMP
+        FROM request_layanan r
+        WHERE r.tgl_request IS NOT NULL
+        GROUP BY date_trunc('month', r.tgl_request)
+        """, nativeQuery = true)
+    int insertFromRequests();
+}
@@ -1,12 +1,20 @@
 package com.PPPL.backend.repository.layanan;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import com.PPPL.backend.data.lead.LeadExportView;
+import com.PPPL.backend.data.lead.RecentActivityView;
 import com.PPPL.backend.model.enums.StatusRequest;
 import com.PPPL.backend.model.layanan.RequestLayanan;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface RequestLayananRepository extends JpaRepository<RequestLayanan, Integer> {
@@ -16,4 +24,51 @@ public interface RequestLayananRepository extends JpaRepository<RequestLayanan,
     List<RequestLayanan> findByStatusOrderByTglRequestAsc(StatusRequest status);
 
     long countByStatus(StatusRequest status);
+
+    /**
+     * Keyset page of unanalyzed lead ids, pass 0 for the first page.
+     * IS NOT TRUE matches the partial index idx_request_pending_lead (V10) exactly.
+     */
+    @Query("""
+        SELECT r.idRequest FROM RequestLayanan r
+        WHERE r.aiAnalyzed IS NOT TRUE
+          AND r.idRequest > :afterId
+        ORDER BY r.idRequest
+        """)
+    List<Integer> findPendingLeadIdsAfter(Integer afterId, Pageable pageable);
+
+    @Query("""
+        SELECT COUNT(r) FROM RequestLayanan r
+        WHERE r.aiAnalyzed IS NOT TRUE
+          AND r.idRequest > :afterId
+        """)
+    long countPendingLeadsAfter(Integer afterId);
+
+    /**
+     * Latest AI-analyzed requests, top-N via Pageable (uses idx_request_recent_ai_activity)
+     */
+    @Query("""
+        SELECT r.idRequest AS idRequest, k.namaKlien AS namaKlien,
+               r.skorPrioritas AS skorPrioritas, r.tglAnalisaAi AS tglAnalisaAi
+        FROM RequestLayanan r LEFT JOIN r.klien k
+        WHERE r.aiAnalyzed = true AND r.tglAnalisaAi IS NOT NULL
+        ORDER BY r.tglAnalisaAi DESC
+        """)
+    List<RecentActivityView> findRecentAiActivities(Pageable pageable);
+
+    /**
+     * All leads for export, read through a server-side cursor (consume inside a transaction)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT r.idRequest AS idRequest, k.namaKlien AS namaKlien, k.emailKlien AS emailKlien,
+               r.perusahaan AS perusahaan, l.namaLayanan AS layanan,
+               r.skorPrioritas AS skorPrioritas, r.kategoriLead AS kategoriLead,
+               r.alasanSkor AS alasanSkor, r.status AS statusRequest,
+               r.tglRequest AS tglRequest, r.tglAnalisaAi AS tglAnalisaAi, r.aiAnalyzed AS aiAnalyzed
+        FROM RequestLayanan r LEFT JOIN r.klien k LEFT JOIN r.layanan l
+        WHERE (:priority IS NULL OR r.skorPrioritas = :priority)
+        ORDER BY r.tglRequest DESC, r.idRequest DESC
+        """)
+    Stream<LeadExportView> streamLeadExport(String priority);
 }
@@ -0,0 +1,25 @@
+package com.PPPL.backend.repository.lead;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.PPPL.backend.model.lead.LeadScoreFingerprint;
+
+import java.util.Date;
+import java.util.Optional;
+
+@Repository
+public interface LeadScoreFingerprintRepository extends JpaRepository<LeadScoreFingerprint, String> {
+
+    // Cari hasil scoring yang masih berlaku untuk fingerprint
+    Optional<LeadScoreFingerprint> findByFingerprintAndCreatedAtAfter(String fingerprint, Date createdAfter);
+
+    // Catat pemakaian ulang hasil scoring
+    @Modifying
+    @Transactional
+    @Query("UPDATE LeadScoreFingerprint f SET f.hitCount = f.hitCount + 1, f.lastUsedAt = :usedAt WHERE f.fingerprint = :fingerprint")
+    int recordHit(String fingerprint, Date usedAt);
+}
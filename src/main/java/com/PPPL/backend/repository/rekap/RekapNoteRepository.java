@@ -0,0 +1,15 @@
+package com.PPPL.backend.repository.rekap;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.PPPL.backend.model.rekap.RekapNote;
+
+@Repository
+public interface RekapNoteRepository extends JpaRepository<RekapNote, Integer> {
+
+    // Notes of one meeting, newest first (uses idx_rekap_note_meeting)
+    Page<RekapNote> findByRekap_IdMeetingOrderByIdNoteDesc(Integer idMeeting, Pageable pageable);
+}
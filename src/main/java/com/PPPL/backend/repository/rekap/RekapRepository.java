@@ -1,15 +1,39 @@
 package com.PPPL.backend.repository.rekap;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.PPPL.backend.data.rekap.RekapListView;
 import com.PPPL.backend.model.enums.StatusRekap;
 import com.PPPL.backend.model.rekap.Rekap;
 
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface RekapRepository extends JpaRepository<Rekap, Integer> {
+
+    // Shared list projection: klien, manager & layanan joined, optional klien / manager filter
+    String LIST_SELECT =
+        "SELECT r.idMeeting AS idMeeting, k.idKlien AS idKlien, k.namaKlien AS namaKlien, " +
+        "COALESCE(NULLIF(r.namaManagerManual, ''), m.namaManager) AS namaManager, " +
+        "l.idLayanan AS idLayanan, l.namaLayanan AS namaLayanan, r.tglMeeting AS tglMeeting, " +
+        "r.hasil AS hasil, r.status AS status, " +
+        "r.jumlahCatatan AS jumlahCatatan, r.catatanTerakhir AS catatanTerakhir " +
+        "FROM Rekap r JOIN r.klien k JOIN r.layanan l LEFT JOIN r.manager m " +
+        "WHERE (:idKlien IS NULL OR k.idKlien = :idKlien) " +
+        "AND (:idManager IS NULL OR m.idManager = :idManager) ";
+
+    String LIST_ORDER = "ORDER BY r.tglMeeting DESC NULLS LAST, r.idMeeting DESC";
     
     List<Rekap> findByKlien_IdKlien(Integer idKlien);
     
@@ -20,4 +44,93 @@ public interface RekapRepository extends JpaRepository<Rekap, Integer> {
     List<Rekap> findByStatus(StatusRekap status);
     
     List<Rekap> findByKlien_IdKlienAndStatus(Integer idKlien, StatusRekap status);
+
+    /**
+     * First page of rekap list, newest meeting first (limit via Pageable)
+     */
+    @Query(LIST_SELECT + LIST_ORDER)
+    List<RekapListView> findListFirstPage(
+        @Param("idKlien") Integer idKlien,
+        @Param("idManager") Integer idManager,
+        Pageable pageable
+    );
+
+    /**
+     * Next page after a dated cursor (tglMeeting, idMeeting); undated rows come last
+     */
+    @Query(LIST_SELECT +
+        "AND (r.tglMeeting < :tglMeeting " +
+        "    OR (r.tglMeeting = :tglMeeting AND r.idMeeting < :idMeeting) " +
+        "    OR r.tglMeeting IS NULL) " +
+        LIST_ORDER)
+    List<RekapListView> findListAfterDated(
+        @Param("idKlien") Integer idKlien,
+        @Param("idManager") Integer idManager,
+        @Param("tglMeeting") Date tglMeeting,
+        @Param("idMeeting") Integer idMeeting,
+        Pageable pageable
+    );
+
+    /**
+     * Next page after an undated cursor (only undated rows remain)
+     */
+    @Query(LIST_SELECT +
+        "AND r.tglMeeting IS NULL AND r.idMeeting < :idMeeting " +
+        LIST_ORDER)
+    List<RekapListView> findListAfterUndated(
+        @Param("idKlien") Integer idKlien,
+        @Param("idManager") Integer idManager,
+        @Param("idMeeting") Integer idMeeting,
+        Pageable pageable
+    );
+
+    // Keyword match per table so each ILIKE can use its own pg_trgm GIN index (see V7)
+    String SEARCH_WHERE =
+        "WHERE (CAST(:pattern AS text) IS NULL " +
+        "    OR r.id_klien IN (SELECT kp.id_klien FROM klien kp WHERE kp.nama_klien ILIKE CAST(:pattern AS text)) " +
+        "    OR r.nama_manager_manual ILIKE CAST(:pattern AS text) " +
+        "    OR (COALESCE(r.nama_manager_manual, '') = '' " +
+        "        AND r.id_manager IN (SELECT mp.id_manager FROM manager mp WHERE mp.nama_manager ILIKE CAST(:pattern AS text)))) " +
+        "AND (CAST(:status AS text) IS NULL OR r.status = CAST(:status AS text)) ";
+
+    // Keyword search on klien / manager name - Native Query, list projection
+    @Query(value =
+        "SELECT r.id_meeting AS \"idMeeting\", k.id_klien AS \"idKlien\", k.nama_klien AS \"namaKlien\", " +
+        "COALESCE(NULLIF(r.nama_manager_manual, ''), m.nama_manager) AS \"namaManager\", " +
+        "l.id_layanan AS \"idLayanan\", l.nama_layanan AS \"namaLayanan\", r.tgl_meeting AS \"tglMeeting\", " +
+        "r.hasil AS \"hasil\", r.status AS \"status\", " +
+        "r.jumlah_catatan AS \"jumlahCatatan\", r.catatan_terakhir AS \"catatanTerakhir\" " +
+        "FROM rekap r " +
+        "JOIN klien k ON k.id_klien = r.id_klien " +
+        "JOIN layanan l ON l.id_layanan = r.id_layanan " +
+        "LEFT JOIN manager m ON m.id_manager = r.id_manager " +
+        SEARCH_WHERE +
+        "ORDER BY r.tgl_meeting DESC NULLS LAST, r.id_meeting DESC",
+        countQuery = "SELECT COUNT(*) FROM rekap r " + SEARCH_WHERE,
+        nativeQuery = true)
+    Page<RekapListView> searchRekap(
+        @Param("pattern") String pattern,
+        @Param("status") String status,
+        Pageable pageable
+    );
+
+    /**
+     * Whole rekap list for export, read through a server-side cursor (consume inside a transaction)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(LIST_SELECT + LIST_ORDER)
+    Stream<RekapListView> streamList(
+        @Param("idKlien") Integer idKlien,
+        @Param("idManager") Integer idManager
+    );
+
+    /**
+     * Bump note summary in place after inserting a rekap_note row
+     */
+    @Modifying
+    @Query(value =
+        "UPDATE rekap SET jumlah_catatan = jumlah_catatan + 1, catatan_terakhir = :isi " +
+        "WHERE id_meeting = :idMeeting",
+        nativeQuery = true)
+    int recordNote(@Param("idMeeting") Integer idMeeting, @Param("isi") String isi);
 }
@@ -10,6 +10,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -26,6 +28,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    // Same repository Spring Security reloads on ASYNC dispatch (streamed exports)
+    private final SecurityContextRepository securityContextRepository =
+            new RequestAttributeSecurityContextRepository();
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -61,6 +67,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
                 SecurityContextHolder.getContext()
                         .setAuthentication(authentication);
+                securityContextRepository.saveContext(
+                        SecurityContextHolder.getContext(), request, response);
 
                 log.debug("[JWT] Authenticated user={} role={}", username, role);
             }
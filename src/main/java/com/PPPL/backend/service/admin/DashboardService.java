@@ -1,122 +1,220 @@
 package com.PPPL.backend.service.admin;
 
 import com.PPPL.backend.controller.admin.DashboardController.*;
-import com.PPPL.backend.model.enums.StatusRequest;
-import com.PPPL.backend.model.layanan.RequestLayanan;
+import com.PPPL.backend.data.layanan.RequestMonthlyAggregate;
+import com.PPPL.backend.repository.layanan.RequestLayananMonthlyRollupRepository;
 import com.PPPL.backend.repository.layanan.RequestLayananRepository;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.text.SimpleDateFormat;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
+@Slf4j
 public class DashboardService {
 
-    @Autowired
-    private RequestLayananRepository requestLayananRepository;
+    public static final String DESTINATION = "/topic/admin/dashboard";
 
-    /**
-     * Helper method to check if a date falls within the specified month and year.
-     */
-    private boolean sameMonth(Date date, int month, int year) {
-        if (date == null) return false;
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(date);
-        return cal.get(Calendar.MONTH) == month &&
-               cal.get(Calendar.YEAR) == year;
-    }
+    // Counter order shared with RequestMonthlyRollupService deltas
+    public static final String[] COUNTER_FIELDS =
+            {"total", "hot", "warm", "cold", "unscored", "verified", "rejected", "pending"};
 
-    private String safeSkor(String skor) {
-        return skor != null ? skor.toUpperCase() : null;
-    }
+    private static final String SNAPSHOT_KEY_PREFIX = "dashboard:month:";
+    private static final Duration SNAPSHOT_TTL = Duration.ofDays(40);
 
-    private String safeNamaKlien(RequestLayanan r) {
-        if (r.getKlien() == null || r.getKlien().getNamaKlien() == null) {
-            return "Klien tidak diketahui";
-        }
-        return r.getKlien().getNamaKlien();
-    }
+    /**
+     * HINCRBY + PEXPIRE only while the hash exists, so an expired/deleted key never
+     * comes back as a partial hash without TTL. Returns HGETALL, empty when missing.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> APPLY_SCRIPT = new DefaultRedisScript<>("""
+        if redis.call('EXISTS', KEYS[1]) == 0 then
+            return {}
+        end
+        for i = 2, #ARGV, 2 do
+            redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1])
+        end
+        redis.call('PEXPIRE', KEYS[1], ARGV[1])
+        return redis.call('HGETALL', KEYS[1])
+        """, List.class);
 
     /**
-     * Get monthly lead statistics categorized by priority scores.
+     * Write all seed fields + PEXPIRE only if no other instance seeded first. Returns HGETALL.
      */
-    public MonthlyLeadStats getMonthlyLeadStats(int months) {
-        List<RequestLayanan> allRequests = requestLayananRepository.findAll();
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SEED_SCRIPT = new DefaultRedisScript<>("""
+        if redis.call('EXISTS', KEYS[1]) == 0 then
+            for i = 2, #ARGV, 2 do
+                redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+        end
+        return redis.call('HGETALL', KEYS[1])
+        """, List.class);
 
-        Calendar cal = Calendar.getInstance();
-        SimpleDateFormat monthFormat =
-                new SimpleDateFormat("MMM yyyy", new Locale("id", "ID"));
+    @Autowired
+    private RequestLayananRepository requestLayananRepository;
 
-        List<MonthData> monthlyData = new ArrayList<>();
+    @Autowired
+    private RequestLayananMonthlyRollupRepository rollupRepository;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
 
-        for (int i = months - 1; i >= 0; i--) {
-            cal.setTime(new Date());
-            cal.add(Calendar.MONTH, -i);
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
 
-            int targetMonth = cal.get(Calendar.MONTH);
-            int targetYear = cal.get(Calendar.YEAR);
-            String label = monthFormat.format(cal.getTime());
+    // Local copy of the current month counters (fallback when Redis is unavailable)
+    private final Map<String, Long> localSnapshot = new ConcurrentHashMap<>();
+    private volatile String localSnapshotMonth;
 
-            List<RequestLayanan> monthRequests = allRequests.stream()
-                    .filter(r -> sameMonth(r.getTglRequest(), targetMonth, targetYear))
-                    .collect(Collectors.toList());
+    /**
+     * Load per-month aggregates for the last N months (oldest first).
+     * Key = month label, value = aggregate or null if the month has no requests.
+     */
+    private Map<String, RequestMonthlyAggregate> loadMonthlyAggregates(int months) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(new Date());
+        cal.add(Calendar.MONTH, -(months - 1));
+        cal.set(Calendar.DAY_OF_MONTH, 1);
+        cal.set(Calendar.HOUR_OF_DAY, 0);
+        cal.set(Calendar.MINUTE, 0);
+        cal.set(Calendar.SECOND, 0);
+        cal.set(Calendar.MILLISECOND, 0);
+
+        Map<String, RequestMonthlyAggregate> byMonthKey = new HashMap<>();
+        for (RequestMonthlyAggregate row : rollupRepository.findSince(cal.getTime())) {
+            byMonthKey.put(row.getMonth(), row);
+        }
+
+        SimpleDateFormat keyFormat = new SimpleDateFormat("yyyy-MM");
+        SimpleDateFormat monthFormat =
+                new SimpleDateFormat("MMM yyyy", new Locale("id", "ID"));
 
-            long hot = monthRequests.stream()
-                    .filter(r -> "HOT".equalsIgnoreCase(safeSkor(r.getSkorPrioritas())))
-                    .count();
+        Map<String, RequestMonthlyAggregate> result = new LinkedHashMap<>();
+        for (int i = 0; i < months; i++) {
+            result.put(monthFormat.format(cal.getTime()), byMonthKey.get(keyFormat.format(cal.getTime())));
+            cal.add(Calendar.MONTH, 1);
+        }
+        return result;
+    }
 
-            long warm = monthRequests.stream()
-                    .filter(r -> "WARM".equalsIgnoreCase(safeSkor(r.getSkorPrioritas())))
-                    .count();
+    /**
+     * Current month counters, shared across instances through Redis (seeded from the rollup)
+     */
+    public CurrentMonthStats getCurrentMonthStats() {
+        String monthKey = monthKey(new Date());
+        return new CurrentMonthStats(monthKey, readSnapshot(monthKey));
+    }
 
-            long cold = monthRequests.stream()
-                    .filter(r -> "COLD".equalsIgnoreCase(safeSkor(r.getSkorPrioritas())))
-                    .count();
+    /**
+     * Called for every rollup delta, pushes current month changes after commit
+     */
+    public void onRollupDelta(Date tglRequest, long[] delta) {
+        String monthKey = monthKey(tglRequest);
+        if (!monthKey.equals(monthKey(new Date()))) {
+            return;
+        }
 
-            long unscored = monthRequests.stream()
-                    .filter(r -> r.getSkorPrioritas() == null)
-                    .count();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pushDelta(monthKey, delta);
+                }
+            });
+        } else {
+            pushDelta(monthKey, delta);
+        }
+    }
 
-            monthlyData.add(new MonthData(label, hot, warm, cold, unscored));
+    /**
+     * Drop the Redis snapshot so it is re-seeded from the rollup (after rebuild)
+     */
+    public void resetCurrentMonthSnapshot() {
+        try {
+            stringRedisTemplate.delete(SNAPSHOT_KEY_PREFIX + monthKey(new Date()));
+        } catch (Exception e) {
+            log.warn("Failed to reset dashboard snapshot: {}", e.getMessage());
         }
+        localSnapshotMonth = null;
+    }
 
-        return new MonthlyLeadStats(monthlyData);
+    /**
+     * Get all dashboard views at once: monthly, trend & conversion from one rollup read
+     */
+    public DashboardSummary getDashboardSummary(int months, int activityLimit) {
+        Map<String, RequestMonthlyAggregate> aggregates = loadMonthlyAggregates(months);
+
+        return new DashboardSummary(
+                buildMonthlyLeadStats(aggregates),
+                buildLeadTrend(aggregates),
+                buildConversionRate(aggregates),
+                getRecentActivities(activityLimit)
+        );
+    }
+
+    /**
+     * Get monthly lead statistics categorized by priority scores.
+     */
+    public MonthlyLeadStats getMonthlyLeadStats(int months) {
+        return buildMonthlyLeadStats(loadMonthlyAggregates(months));
     }
 
     /**
      * Get lead trend statistics over a specified number of months.
      */
     public LeadTrendStats getLeadTrend(int months) {
-        List<RequestLayanan> allRequests = requestLayananRepository.findAll();
+        return buildLeadTrend(loadMonthlyAggregates(months));
+    }
 
-        Calendar cal = Calendar.getInstance();
-        SimpleDateFormat monthFormat =
-                new SimpleDateFormat("MMM yyyy", new Locale("id", "ID"));
+    /**
+     * Get conversion rate statistics over a specified number of months.
+     */
+    public ConversionStats getConversionRate(int months) {
+        return buildConversionRate(loadMonthlyAggregates(months));
+    }
 
-        List<TrendData> trendData = new ArrayList<>();
-        long previousCount = 0;
+    private MonthlyLeadStats buildMonthlyLeadStats(Map<String, RequestMonthlyAggregate> aggregates) {
+        List<MonthData> monthlyData = new ArrayList<>();
 
-        for (int i = months - 1; i >= 0; i--) {
-            cal.setTime(new Date());
-            cal.add(Calendar.MONTH, -i);
+        aggregates.forEach((label, row) -> {
+            if (row == null) {
+                monthlyData.add(new MonthData(label, 0, 0, 0, 0));
+            } else {
+                monthlyData.add(new MonthData(label, row.getHot(), row.getWarm(), row.getCold(), row.getUnscored()));
+            }
+        });
 
-            int targetMonth = cal.get(Calendar.MONTH);
-            int targetYear = cal.get(Calendar.YEAR);
-            String label = monthFormat.format(cal.getTime());
+        return new MonthlyLeadStats(monthlyData);
+    }
 
-            long count = allRequests.stream()
-                    .filter(r -> sameMonth(r.getTglRequest(), targetMonth, targetYear))
-                    .count();
+    private LeadTrendStats buildLeadTrend(Map<String, RequestMonthlyAggregate> aggregates) {
+        List<TrendData> trendData = new ArrayList<>();
+        long previousCount = 0;
+
+        for (Map.Entry<String, RequestMonthlyAggregate> entry : aggregates.entrySet()) {
+            long count = entry.getValue() != null ? entry.getValue().getTotal() : 0;
 
             double growthRate = previousCount > 0
                     ? ((double) (count - previousCount) / previousCount) * 100
                     : 0;
 
             trendData.add(new TrendData(
-                    label,
+                    entry.getKey(),
                     count,
                     Math.round(growthRate * 10) / 10.0
             ));
@@ -127,42 +225,14 @@ public class DashboardService {
         return new LeadTrendStats(trendData);
     }
 
-    /**
-     * Get conversion rate statistics over a specified number of months.
-     */
-    public ConversionStats getConversionRate(int months) {
-        List<RequestLayanan> allRequests = requestLayananRepository.findAll();
-
-        Calendar cal = Calendar.getInstance();
-        SimpleDateFormat monthFormat =
-                new SimpleDateFormat("MMM yyyy", new Locale("id", "ID"));
-
+    private ConversionStats buildConversionRate(Map<String, RequestMonthlyAggregate> aggregates) {
         List<ConversionData> conversionData = new ArrayList<>();
 
-        for (int i = months - 1; i >= 0; i--) {
-            cal.setTime(new Date());
-            cal.add(Calendar.MONTH, -i);
-
-            int targetMonth = cal.get(Calendar.MONTH);
-            int targetYear = cal.get(Calendar.YEAR);
-            String label = monthFormat.format(cal.getTime());
-
-            List<RequestLayanan> monthRequests = allRequests.stream()
-                    .filter(r -> sameMonth(r.getTglRequest(), targetMonth, targetYear))
-                    .collect(Collectors.toList());
-
-            long total = monthRequests.size();
-            long verified = monthRequests.stream()
-                    .filter(r -> r.getStatus() == StatusRequest.VERIFIKASI)
-                    .count();
-
-            long rejected = monthRequests.stream()
-                    .filter(r -> r.getStatus() == StatusRequest.DITOLAK)
-                    .count();
-
-            long pending = monthRequests.stream()
-                    .filter(r -> r.getStatus() == StatusRequest.MENUNGGU_VERIFIKASI)
-                    .count();
+        aggregates.forEach((label, row) -> {
+            long total = row != null ? row.getTotal() : 0;
+            long verified = row != null ? row.getVerified() : 0;
+            long rejected = row != null ? row.getRejected() : 0;
+            long pending = row != null ? row.getPending() : 0;
 
             double conversionRate = total > 0
                     ? ((double) verified / total) * 100
@@ -176,7 +246,7 @@ public class DashboardService {
                     pending,
                     Math.round(conversionRate * 10) / 10.0
             ));
-        }
+        });
 
         return new ConversionStats(conversionData);
     }
@@ -185,13 +255,11 @@ public class DashboardService {
      * Get recent activities based on AI analysis.
      */
     public List<ActivityData> getRecentActivities(int limit) {
-        return requestLayananRepository.findAll().stream()
-                .filter(r -> Boolean.TRUE.equals(r.getAiAnalyzed())
-                        && r.getTglAnalisaAi() != null)
-                .sorted(Comparator.comparing(RequestLayanan::getTglAnalisaAi).reversed())
-                .limit(limit)
+        return requestLayananRepository.findRecentAiActivities(PageRequest.of(0, Math.max(1, limit))).stream()
                 .map(r -> {
-                    String nama = safeNamaKlien(r);
+                    String nama = r.getNamaKlien() != null
+                            ? r.getNamaKlien()
+                            : "Klien tidak diketahui";
                     String skor = r.getSkorPrioritas() != null
                             ? r.getSkorPrioritas()
                             : "UNKNOWN";
@@ -210,4 +278,152 @@ public class DashboardService {
                 })
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    // Private Helper Methods
+
+    private void pushDelta(String monthKey, long[] delta) {
+        Map<String, Long> changes = new LinkedHashMap<>();
+        for (int i = 0; i < COUNTER_FIELDS.length; i++) {
+            if (delta[i] != 0) {
+                changes.put(COUNTER_FIELDS[i], delta[i]);
+            }
+        }
+
+        Map<String, Long> counters = applyToSnapshot(monthKey, changes);
+        messagingTemplate.convertAndSend(DESTINATION, new DashboardDelta(monthKey, changes, counters, new Date()));
+    }
+
+    /**
+     * HINCRBY deltas in Redis (one script); a missing key is seeded from the (already updated) rollup instead
+     */
+    private Map<String, Long> applyToSnapshot(String monthKey, Map<String, Long> changes) {
+        String key = SNAPSHOT_KEY_PREFIX + monthKey;
+        try {
+            List<String> args = new ArrayList<>();
+            args.add(String.valueOf(SNAPSHOT_TTL.toMillis()));
+            changes.forEach((field, value) -> {
+                args.add(field);
+                args.add(value.toString());
+            });
+
+            Map<String, Long> counters = runSnapshotScript(APPLY_SCRIPT, key, args);
+            if (counters == null) {
+                return seedSnapshot(monthKey);
+            }
+            localSnapshot.putAll(counters);
+            localSnapshotMonth = monthKey;
+            return counters;
+
+        } catch (Exception e) {
+            log.warn("Dashboard snapshot Redis sync failed, using local counters: {}", e.getMessage());
+            if (!monthKey.equals(localSnapshotMonth)) {
+                localSnapshot.clear();
+                localSnapshot.putAll(loadRollupCounters(monthKey));
+                localSnapshotMonth = monthKey;
+            } else {
+                changes.forEach((field, value) -> localSnapshot.merge(field, value, Long::sum));
+            }
+            return new LinkedHashMap<>(localSnapshot);
+        }
+    }
+
+    private Map<String, Long> readSnapshot(String monthKey) {
+        String key = SNAPSHOT_KEY_PREFIX + monthKey;
+        try {
+            Map<Object, Object> entries = stringRedisTemplate.opsForHash().entries(key);
+            if (entries.isEmpty()) {
+                return seedSnapshot(monthKey);
+            }
+
+            Map<String, Long> counters = new LinkedHashMap<>();
+            for (String field : COUNTER_FIELDS) {
+                Object value = entries.get(field);
+                counters.put(field, value != null ? Long.parseLong(value.toString()) : 0L);
+            }
+            localSnapshot.putAll(counters);
+            localSnapshotMonth = monthKey;
+            return counters;
+
+        } catch (Exception e) {
+            log.warn("Dashboard snapshot read from Redis failed: {}", e.getMessage());
+            return loadRollupCounters(monthKey);
+        }
+    }
+
+    /**
+     * Seed from the rollup; if another instance seeded first its hash wins (returned as is)
+     */
+    private Map<String, Long> seedSnapshot(String monthKey) {
+        String key = SNAPSHOT_KEY_PREFIX + monthKey;
+        Map<String, Long> rollup = loadRollupCounters(monthKey);
+
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(SNAPSHOT_TTL.toMillis()));
+        rollup.forEach((field, value) -> {
+            args.add(field);
+            args.add(value.toString());
+        });
+
+        Map<String, Long> counters = runSnapshotScript(SEED_SCRIPT, key, args);
+        if (counters == null) {
+            counters = rollup;
+        }
+
+        localSnapshot.putAll(counters);
+        localSnapshotMonth = monthKey;
+        return counters;
+    }
+
+    /**
+     * Run a snapshot script, null when the hash does not exist
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Map<String, Long> runSnapshotScript(RedisScript<List> script, String key, List<String> args) {
+        List<String> flat = stringRedisTemplate.execute(script, List.of(key), args.toArray());
+        if (flat == null || flat.isEmpty()) {
+            return null;
+        }
+
+        Map<String, String> entries = new HashMap<>();
+        for (int i = 0; i + 1 < flat.size(); i += 2) {
+            entries.put(flat.get(i), flat.get(i + 1));
+        }
+
+        Map<String, Long> counters = new LinkedHashMap<>();
+        for (String field : COUNTER_FIELDS) {
+            String value = entries.get(field);
+            counters.put(field, value != null ? Long.parseLong(value) : 0L);
+        }
+        return counters;
+    }
+
+    private Map<String, Long> loadRollupCounters(String monthKey) {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        RequestMonthlyAggregate row = rollupRepository.findSince(parseMonthKey(monthKey)).stream()
+                .filter(r -> monthKey.equals(r.getMonth()))
+                .findFirst()
+                .orElse(null);
+
+        counters.put("total", row != null ? row.getTotal() : 0);
+        counters.put("hot", row != null ? row.getHot() : 0);
+        counters.put("warm", row != null ? row.getWarm() : 0);
+        counters.put("cold", row != null ? row.getCold() : 0);
+        counters.put("unscored", row != null ? row.getUnscored() : 0);
+        counters.put("verified", row != null ? row.getVerified() : 0);
+        counters.put("rejected", row != null ? row.getRejected() : 0);
+        counters.put("pending", row != null ? row.getPending() : 0);
+        return counters;
+    }
+
+    private String monthKey(Date date) {
+        return new SimpleDateFormat("yyyy-MM").format(date);
+    }
+
+    private Date parseMonthKey(String monthKey) {
+        try {
+            return new SimpleDateFormat("yyyy-MM").parse(monthKey);
+        } catch (java.text.ParseException e) {
+            throw new IllegalArgumentException("Invalid month " + monthKey, e);
+        }
+    }
+}
@@ -6,14 +6,21 @@ import com.PPPL.backend.model.admin.Karyawan;
 import com.PPPL.backend.model.admin.Manager;
 import com.PPPL.backend.repository.admin.KaryawanRepository;
 import com.PPPL.backend.repository.admin.ManagerRepository;
+import com.PPPL.backend.repository.common.SearchSpecifications;
+import com.PPPL.backend.util.PageResults;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,6 +28,8 @@ public class KaryawanService {
 
     private static final Logger log = LoggerFactory.getLogger(KaryawanService.class);
 
+    private static final Set<String> SORT_FIELDS = Set.of("idKaryawan", "namaKaryawan", "emailKaryawan", "jabatanPosisi");
+
     @Autowired
     private KaryawanRepository karyawanRepository;
 
@@ -148,9 +157,10 @@ public class KaryawanService {
     }
 
     /**
-     * Search karyawan by keyword dan/atau manager
+     * Search karyawan by keyword dan/atau manager, paginated in the database
      */
-    public List<KaryawanDTO> searchKaryawan(String keyword, Integer idManager) {
+    public Map<String, Object> searchKaryawan(String keyword, Integer idManager,
+                                              int page, int size, String sort) {
         // Validasi idManager jika diberikan
         if (idManager != null && !managerRepository.existsById(idManager)) {
             throw new ResourceNotFoundException(
@@ -158,28 +168,18 @@ public class KaryawanService {
             );
         }
 
-        List<Karyawan> karyawan = karyawanRepository.findAll();
-
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            String kw = keyword.trim().toLowerCase();
-            karyawan = karyawan.stream()
-                .filter(k ->
-                    k.getNamaKaryawan().toLowerCase().contains(kw) ||
-                    k.getEmailKaryawan().toLowerCase().contains(kw) ||
-                    k.getJabatanPosisi().toLowerCase().contains(kw)
-                )
-                .collect(Collectors.toList());
-        }
+        Specification<Karyawan> spec = Specification.allOf(
+            SearchSpecifications.fetch("manager"),
+            SearchSpecifications.keyword(keyword, "namaKaryawan", "emailKaryawan", "jabatanPosisi"),
+            SearchSpecifications.equal("manager.idManager", idManager)
+        );
 
-        if (idManager != null) {
-            karyawan = karyawan.stream()
-                .filter(k -> k.getManager().getIdManager().equals(idManager))
-                .collect(Collectors.toList());
-        }
+        Page<Karyawan> karyawanPage = karyawanRepository.findAll(spec,
+            PageResults.pageable(page, size, sort, SORT_FIELDS, Sort.by("idKaryawan")));
 
-        return karyawan.stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+        return PageResults.toResponse("karyawan",
+            karyawanPage.getContent().stream().map(this::convertToDTO).collect(Collectors.toList()),
+            karyawanPage);
     }
 
     /**
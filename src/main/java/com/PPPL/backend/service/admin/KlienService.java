@@ -1,20 +1,28 @@
 package com.PPPL.backend.service.admin;
 
 import com.PPPL.backend.data.client.KlienDTO;
+import com.PPPL.backend.data.client.VerifiedKlienView;
 import com.PPPL.backend.handler.ResourceNotFoundException;
 import com.PPPL.backend.model.admin.Klien;
 import com.PPPL.backend.model.admin.Manager;
 import com.PPPL.backend.model.enums.StatusKlien;
 import com.PPPL.backend.repository.client.KlienRepository;
+import com.PPPL.backend.repository.common.SearchSpecifications;
+import com.PPPL.backend.util.PageResults;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,16 +30,21 @@ public class KlienService {
 
     private static final Logger log = LoggerFactory.getLogger(KlienService.class);
 
+    private static final Set<String> SORT_FIELDS = Set.of("idKlien", "namaKlien", "emailKlien", "status", "tglRequest");
+
     @Autowired
     private KlienRepository klienRepository;
 
-    public List<KlienDTO> getAllKlien() {
-        return klienRepository
-            .findKlienYangTerverifikasi()
-            .stream()
-            .filter(k -> !Boolean.TRUE.equals(k.getIsDeleted()))
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+    /**
+     * Verified klien, paginated projection (no entity graph / lazy collections)
+     */
+    public Map<String, Object> getAllKlien(int page, int size) {
+        Page<VerifiedKlienView> klienPage = klienRepository.findKlienYangTerverifikasi(
+            PageResults.pageable(page, size));
+
+        return PageResults.toResponse("klien",
+            klienPage.getContent().stream().map(this::convertToDTO).collect(Collectors.toList()),
+            klienPage);
     }
 
     /**
@@ -125,28 +138,21 @@ public class KlienService {
         log.info("Klien soft deleted: id={}", id);
     }
 
-    public List<KlienDTO> searchKlien(String keyword, StatusKlien status) {
-        List<Klien> klien = klienRepository.findAll().stream()
-            .filter(k -> !Boolean.TRUE.equals(k.getIsDeleted()))
-            .collect(Collectors.toList());
-
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            String kw = keyword.trim().toLowerCase();
-            klien = klien.stream()
-                .filter(k -> k.getNamaKlien().toLowerCase().contains(kw) ||
-                    k.getEmailKlien().toLowerCase().contains(kw))
-                .collect(Collectors.toList());
-        }
-
-        if (status != null) {
-            klien = klien.stream()
-                .filter(k -> k.getStatus() == status)
-                .collect(Collectors.toList());
-        }
-
-        return klien.stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+    /**
+     * Search klien by keyword (nama / email) &/ status, paginated in the database
+     */
+    public Map<String, Object> searchKlien(String keyword, StatusKlien status,
+                                           int page, int size, String sort) {
+        Specification<Klien> spec = Specification.allOf(
+            SearchSpecifications.isNotTrue("isDeleted"),
+            SearchSpecifications.keyword(keyword, "namaKlien", "emailKlien"),
+            SearchSpecifications.equal("status", status)
+        );
+
+        Page<KlienDTO> klienPage = klienRepository.searchWithLastApprover(spec,
+            PageResults.pageable(page, size, sort, SORT_FIELDS, Sort.by("idKlien")));
+
+        return PageResults.toResponse("klien", klienPage.getContent(), klienPage);
     }
 
     /**
@@ -170,6 +176,11 @@ public class KlienService {
         return convertToDTO(updated);
     }
 
+    private KlienDTO convertToDTO(VerifiedKlienView row) {
+        return new KlienDTO(row.getIdKlien(), row.getNamaKlien(), row.getEmailKlien(),
+            row.getNoTelp(), row.getStatus(), row.getTglRequest(), row.getLastApprovedBy());
+    }
+
     private KlienDTO convertToDTO(Klien klien) {
         KlienDTO dto = new KlienDTO();
         dto.setIdKlien(klien.getIdKlien());
@@ -5,14 +5,21 @@ import com.PPPL.backend.handler.ResourceNotFoundException;
 import com.PPPL.backend.model.enums.KategoriLayanan;
 import com.PPPL.backend.model.layanan.Layanan;
 import com.PPPL.backend.repository.layanan.LayananRepository;
+import com.PPPL.backend.repository.common.SearchSpecifications;
+import com.PPPL.backend.util.PageResults;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,6 +27,8 @@ public class LayananService {
 
     private static final Logger log = LoggerFactory.getLogger(LayananService.class);
 
+    private static final Set<String> SORT_FIELDS = Set.of("idLayanan", "namaLayanan", "kategori");
+
     @Autowired
     private LayananRepository layananRepository;
 
@@ -112,25 +121,22 @@ public class LayananService {
         log.info("Layanan deleted: id={}", id);
     }
 
-    public List<LayananDTO> searchLayanan(String keyword, KategoriLayanan kategori) {
-        List<Layanan> layanan = layananRepository.findAll();
-
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            String kw = keyword.trim().toLowerCase();
-            layanan = layanan.stream()
-                .filter(l -> l.getNamaLayanan().toLowerCase().contains(kw))
-                .collect(Collectors.toList());
-        }
-
-        if (kategori != null) {
-            layanan = layanan.stream()
-                .filter(l -> l.getKategori() == kategori)
-                .collect(Collectors.toList());
-        }
-
-        return layanan.stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+    /**
+     * Search layanan by keyword (nama) &/ kategori, paginated in the database
+     */
+    public Map<String, Object> searchLayanan(String keyword, KategoriLayanan kategori,
+                                             int page, int size, String sort) {
+        Specification<Layanan> spec = Specification.allOf(
+            SearchSpecifications.keyword(keyword, "namaLayanan"),
+            SearchSpecifications.equal("kategori", kategori)
+        );
+
+        Page<Layanan> layananPage = layananRepository.findAll(spec,
+            PageResults.pageable(page, size, sort, SORT_FIELDS, Sort.by("idLayanan")));
+
+        return PageResults.toResponse("layanan",
+            layananPage.getContent().stream().map(this::convertToDTO).collect(Collectors.toList()),
+            layananPage);
     }
 
     public List<LayananDTO> getLayananByKategori(KategoriLayanan kategori) {
@@ -2,25 +2,66 @@ package com.PPPL.backend.service.admin;
 
 import com.PPPL.backend.config.cache.RateLimiterRedisConfig;
 import com.PPPL.backend.data.lead.LeadAnalysisDTO;
+import com.PPPL.backend.data.lead.LeadExportView;
+import com.PPPL.backend.data.lead.LeadJobEventDTO;
 import com.PPPL.backend.data.lead.LeadScoringResponse;
+import com.PPPL.backend.event.LeadJobEventPublisher;
+import com.PPPL.backend.handler.BatchAlreadyRunningException;
+import com.PPPL.backend.handler.GeminiUnavailableException;
 import com.PPPL.backend.handler.RateLimitExceededException;
 import com.PPPL.backend.handler.ResourceNotFoundException;
 import com.PPPL.backend.model.layanan.RequestLayanan;
 import com.PPPL.backend.repository.layanan.RequestLayananRepository;
+import com.PPPL.backend.service.lead.GeminiCallGuard;
 import com.PPPL.backend.service.lead.GeminiService;
+import com.PPPL.backend.service.lead.LeadScoringLock;
+import com.PPPL.backend.service.lead.GeminiWorkScheduler;
+import com.PPPL.backend.util.ExportWriter;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 public class LeadScoringService {
 
+    private static final List<ExportWriter.Column<LeadExportView>> EXPORT_COLUMNS = List.of(
+        new ExportWriter.Column<>("idRequest", LeadExportView::getIdRequest),
+        new ExportWriter.Column<>("tglRequest", LeadExportView::getTglRequest),
+        new ExportWriter.Column<>("namaKlien", LeadExportView::getNamaKlien),
+        new ExportWriter.Column<>("emailKlien", LeadExportView::getEmailKlien),
+        new ExportWriter.Column<>("perusahaan", LeadExportView::getPerusahaan),
+        new ExportWriter.Column<>("layanan", LeadExportView::getLayanan),
+        new ExportWriter.Column<>("statusRequest", LeadExportView::getStatusRequest),
+        new ExportWriter.Column<>("aiAnalyzed", LeadExportView::getAiAnalyzed),
+        new ExportWriter.Column<>("skorPrioritas", LeadExportView::getSkorPrioritas),
+        new ExportWriter.Column<>("kategoriLead", LeadExportView::getKategoriLead),
+        new ExportWriter.Column<>("alasanSkor", LeadExportView::getAlasanSkor),
+        new ExportWriter.Column<>("tglAnalisaAi", LeadExportView::getTglAnalisaAi)
+    );
+
     @Autowired
     private GeminiService geminiService;
 
@@ -30,6 +71,29 @@ public class LeadScoringService {
     @Autowired
     private RateLimiterRedisConfig rateLimiterRedisConfig;
 
+    @Autowired
+    @Qualifier("leadScoringExecutor")
+    private Executor leadScoringExecutor;
+
+    @Autowired
+    @Qualifier("leadJobExecutor")
+    private Executor leadJobExecutor;
+
+    @Autowired
+    private LeadJobEventPublisher leadJobEventPublisher;
+
+    @Autowired
+    private LeadScoringLock leadScoringLock;
+
+    @Autowired
+    private GeminiCallGuard geminiCallGuard;
+
+    @Value("${lead-scoring.batch.size:10}")
+    private int batchSize;
+
+    @Value("${lead-scoring.batch.page-size:200}")
+    private int pageSize;
+
     /**
      * Analyze single lead with rate limit check
      */
@@ -43,57 +107,82 @@ public class LeadScoringService {
         }
 
         // Process analysis (cached in GeminiService)
-        LeadScoringResponse result = geminiService.reAnalyzeLead(idRequest);
+        LeadScoringResponse result = GeminiWorkScheduler.withLane(
+            GeminiWorkScheduler.Lane.INTERACTIVE, () -> geminiService.reAnalyzeLead(idRequest));
         
         log.info("Lead {} analyzed by admin {}", idRequest, adminId);
         return result;
     }
 
     /**
-     * Batch analyze all unanalyzed leads
+     * Batch analyze all unanalyzed leads (blocking)
      */
     public BatchAnalysisResult analyzeAllPendingLeads(Integer adminId) {
-        // Get pending leads
-        List<RequestLayanan> pendingLeads = requestLayananRepository
-            .findAll()
-            .stream()
-            .filter(r -> r.getAiAnalyzed() == null || !r.getAiAnalyzed())
-            .collect(Collectors.toList());
-
-        if (pendingLeads.isEmpty()) {
+        if (requestLayananRepository.countPendingLeadsAfter(0) == 0) {
             log.info("No pending leads to analyze");
-            return new BatchAnalysisResult(0, 0, 0, 0);
+            return new BatchAnalysisResult(0, 0, 0, 0, 0);
         }
 
-        int success = 0;
-        int failed = 0;
-        int rateLimited = 0;
+        String owner = "sync:" + UUID.randomUUID();
+        String runningJobId = leadScoringLock.tryLockBatch(owner);
+        if (runningJobId != null) {
+            throw new BatchAlreadyRunningException(
+                "Batch analysis sedang berjalan (job " + runningJobId + ")", runningJobId);
+        }
 
-        for (RequestLayanan lead : pendingLeads) {
-            try {
-                // Check rate limit for each iteration
-                checkRateLimit(adminId);
+        try {
+            return runBatchAnalysis(adminId, owner, (idRequest, result) -> { });
+        } finally {
+            leadScoringLock.releaseBatch(owner);
+        }
+    }
 
-                geminiService.reAnalyzeLead(lead.getIdRequest());
-                success++;
+    /**
+     * Start batch analysis as background job
+     * Progress & summary pushed to /topic/admin/lead-jobs/{jobId}
+     * Only one batch runs at a time: a second call returns the running jobId
+     */
+    public LeadJobStarted startBatchAnalysisJob(Integer adminId) {
+        String jobId = UUID.randomUUID().toString();
+
+        String runningJobId = leadScoringLock.tryLockBatch(jobId);
+        if (runningJobId != null) {
+            log.info("Lead analysis job {} already running, request by admin {} reused it", runningJobId, adminId);
+            LeadJobEventDTO state = leadJobEventPublisher.getLatestState(runningJobId);
+            int runningTotal = state != null ? state.getTotal() : 0;
+            return new LeadJobStarted(runningJobId, runningTotal,
+                LeadJobEventPublisher.DESTINATION_PREFIX + runningJobId, true);
+        }
 
-            } catch (RateLimitExceededException e) {
-                // Stop if rate limit exceeded
-                rateLimited = pendingLeads.size() - success - failed;
-                log.warn("Batch analysis stopped due to rate limit. Success: {}, Failed: {}, Remaining: {}", 
-                    success, failed, rateLimited);
-                break;
+        int total = (int) requestLayananRepository.countPendingLeadsAfter(0);
 
-            } catch (Exception e) {
-                failed++;
-                log.error("Failed to analyze lead {}: {}", lead.getIdRequest(), e.getMessage());
-            }
+        leadJobEventPublisher.publish(new LeadJobEventDTO(
+            jobId, "STARTED", null, null, 0, total, 0, 0, 0, 0, 0, new Date()));
+
+        try {
+            leadJobExecutor.execute(() -> runBatchAnalysisJob(jobId, adminId, total));
+
+        } catch (RejectedExecutionException e) {
+            log.warn("Lead analysis job {} rejected, executor full: {}", jobId, e.getMessage());
+            leadJobEventPublisher.publish(new LeadJobEventDTO(
+                jobId, "FAILED", null, null, 0, total, 0, 0, 0, 0, 0, new Date()));
+            leadScoringLock.releaseBatch(jobId);
+            throw new GeminiUnavailableException("Antrian batch analysis penuh. Coba lagi beberapa saat lagi.");
         }
 
-        log.info("Batch analysis completed. Success: {}, Failed: {}, Rate limited: {}, Total: {}", 
-            success, failed, rateLimited, pendingLeads.size());
+        log.info("Lead analysis job {} started by admin {} for {} leads", jobId, adminId, total);
+        return new LeadJobStarted(jobId, total, LeadJobEventPublisher.DESTINATION_PREFIX + jobId, false);
+    }
 
-        return new BatchAnalysisResult(success, failed, rateLimited, pendingLeads.size());
+    /**
+     * Get latest state of background analysis job
+     */
+    public LeadJobEventDTO getBatchAnalysisJob(String jobId) {
+        LeadJobEventDTO state = leadJobEventPublisher.getLatestState(jobId);
+        if (state == null) {
+            throw new ResourceNotFoundException("Job dengan ID " + jobId + " tidak ditemukan");
+        }
+        return state;
     }
 
     /**
@@ -142,6 +231,18 @@ public class LeadScoringService {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Stream leads (optionally one priority) as CSV / NDJSON straight from a database cursor
+     */
+    @Transactional(readOnly = true)
+    public long exportLeads(String priority, ExportWriter.Format format, OutputStream out) throws IOException {
+        try (Stream<LeadExportView> rows = requestLayananRepository.streamLeadExport(priority)) {
+            long count = ExportWriter.write(rows, EXPORT_COLUMNS, format, out);
+            log.info("Leads exported: priority={}, format={}, rows={}", priority, format, count);
+            return count;
+        }
+    }
+
     /**
      * Get lead statistics (cached)
      */
@@ -188,6 +289,169 @@ public class LeadScoringService {
 
     // Private Helper Methods
 
+    /**
+     * Body of the background job, always releases the batch lock
+     */
+    private void runBatchAnalysisJob(String jobId, Integer adminId, int total) {
+        AtomicInteger processed = new AtomicInteger();
+        AtomicInteger success = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        try {
+            BatchAnalysisResult result = runBatchAnalysis(adminId, jobId, (idRequest, response) -> {
+                boolean isError = "ERROR".equals(response.getSkorPrioritas());
+                int successCount = isError ? success.get() : success.incrementAndGet();
+                int failedCount = isError ? failed.incrementAndGet() : failed.get();
+
+                leadJobEventPublisher.publish(new LeadJobEventDTO(
+                    jobId, "PROGRESS", idRequest, response.getSkorPrioritas(),
+                    processed.incrementAndGet(), total, successCount, failedCount, 0, 0, 0, new Date()));
+            });
+
+            leadJobEventPublisher.publish(new LeadJobEventDTO(
+                jobId, "COMPLETED", null, null, result.getProcessedCount(), result.totalPending,
+                result.successCount, result.failedCount, result.skippedCount,
+                result.rateLimitedCount, result.unavailableCount, new Date()));
+
+        } catch (Exception e) {
+            log.error("Lead analysis job {} failed: {}", jobId, e.getMessage(), e);
+            leadJobEventPublisher.publish(new LeadJobEventDTO(
+                jobId, "FAILED", null, null, processed.get(), total,
+                success.get(), failed.get(), 0, 0, 0, new Date()));
+
+        } finally {
+            leadScoringLock.releaseBatch(jobId);
+        }
+    }
+
+    /**
+     * Batch engine: pending ids are read in keyset pages (lead-scoring.batch.page-size),
+     * each page is grouped into multi-lead Gemini prompts (lead-scoring.batch.size),
+     * chunks run in parallel on leadScoringExecutor, rate limit checked once per Gemini call.
+     * A page is finished before the next one is fetched, so memory stays flat.
+     * onLeadAnalyzed is called from executor threads for every lead result.
+     * Caller holds the batch lock (lockOwner), it is refreshed per page; each lead is
+     * claimed before dispatch so the new-lead consumer never scores it at the same time,
+     * leads claimed elsewhere are counted as skipped.
+     * Dispatching stops when the admin rate limit is hit or Gemini is unavailable (circuit
+     * open, quota/lane wait exceeded); the remaining leads are reported as not processed.
+     */
+    private BatchAnalysisResult runBatchAnalysis(
+            Integer adminId,
+            String lockOwner,
+            BiConsumer<Integer, LeadScoringResponse> onLeadAnalyzed) {
+
+        AtomicInteger success = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger unavailable = new AtomicInteger();
+        AtomicBoolean geminiDown = new AtomicBoolean();
+        int skipped = 0;
+        int rateLimited = 0;
+        int afterId = 0;
+        boolean stopped = false;
+
+        while (!stopped) {
+            List<Integer> pageIds = requestLayananRepository
+                .findPendingLeadIdsAfter(afterId, PageRequest.of(0, pageSize));
+            if (pageIds.isEmpty()) {
+                break;
+            }
+            afterId = pageIds.get(pageIds.size() - 1);
+            leadScoringLock.refreshBatch(lockOwner);
+
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+            for (int from = 0; from < pageIds.size(); from += batchSize) {
+                List<Integer> candidates = pageIds.subList(from, Math.min(from + batchSize, pageIds.size()));
+
+                // Stop before spending admin quota on calls Gemini would reject
+                if (geminiDown.get() || !isGeminiAvailable()) {
+                    int remaining = pageIds.size() - from
+                        + (int) requestLayananRepository.countPendingLeadsAfter(afterId);
+                    unavailable.addAndGet(remaining);
+                    log.warn("Batch analysis stopped dispatching, Gemini unavailable. Remaining: {}", remaining);
+                    stopped = true;
+                    break;
+                }
+
+                // Skip leads being scored elsewhere (new-lead consumer)
+                List<Integer> chunk = candidates.stream()
+                    .filter(leadScoringLock::tryClaimLead)
+                    .collect(Collectors.toList());
+                skipped += candidates.size() - chunk.size();
+                if (chunk.isEmpty()) {
+                    continue;
+                }
+
+                try {
+                    // Reserve quota before dispatching (one Gemini call per chunk)
+                    checkRateLimit(adminId);
+
+                } catch (RateLimitExceededException e) {
+                    chunk.forEach(leadScoringLock::releaseLead);
+                    // Claimed leads of this chunk are counted as not processed, not skipped
+                    skipped -= candidates.size() - chunk.size();
+                    rateLimited = pageIds.size() - from
+                        + (int) requestLayananRepository.countPendingLeadsAfter(afterId);
+                    log.warn("Batch analysis stopped dispatching due to rate limit. Remaining: {}", rateLimited);
+                    stopped = true;
+                    break;
+                }
+
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        Map<Integer, LeadScoringResponse> results = GeminiWorkScheduler.withLane(
+                            GeminiWorkScheduler.Lane.BACKGROUND, () -> geminiService.reAnalyzeLeads(chunk));
+                        results.forEach((idRequest, result) -> {
+                            if ("ERROR".equals(result.getSkorPrioritas())) {
+                                failed.incrementAndGet();
+                                log.error("Failed to analyze lead {}: {}", idRequest, result.getAlasan());
+                            } else {
+                                success.incrementAndGet();
+                            }
+                            onLeadAnalyzed.accept(idRequest, result);
+                        });
+                        // Leads left out were not sent, Gemini unavailable
+                        if (results.size() < chunk.size()) {
+                            unavailable.addAndGet(chunk.size() - results.size());
+                            geminiDown.set(true);
+                        }
+
+                    } catch (Exception e) {
+                        failed.addAndGet(chunk.size());
+                        log.error("Failed to analyze leads {}: {}", chunk, e.getMessage());
+
+                    } finally {
+                        chunk.forEach(leadScoringLock::releaseLead);
+                    }
+                }, leadScoringExecutor));
+            }
+
+            // Wait for all dispatched chunks of this page
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+        }
+
+        BatchAnalysisResult result = new BatchAnalysisResult(
+            success.get(), failed.get(), skipped, rateLimited, unavailable.get());
+        log.info("Batch analysis completed. Success: {}, Failed: {}, Skipped: {}, Rate limited: {}, Unavailable: {}, Total: {}",
+            result.successCount, result.failedCount, result.skippedCount,
+            result.rateLimitedCount, result.unavailableCount, result.totalPending);
+
+        return result;
+    }
+
+    /**
+     * Breaker check without taking a permit
+     */
+    private boolean isGeminiAvailable() {
+        try {
+            geminiCallGuard.checkAvailable();
+            return true;
+        } catch (GeminiUnavailableException e) {
+            return false;
+        }
+    }
+
     /**
      * Check rate limit and throw exception if exceeded
      */
@@ -265,14 +529,39 @@ public class LeadScoringService {
     public static class BatchAnalysisResult {
         public int successCount;
         public int failedCount;
+        public int skippedCount;
         public int rateLimitedCount;
+        public int unavailableCount;
         public int totalPending;
 
-        public BatchAnalysisResult(int success, int failed, int rateLimited, int total) {
+        public BatchAnalysisResult(int success, int failed, int skipped, int rateLimited, int unavailable) {
             this.successCount = success;
             this.failedCount = failed;
+            this.skippedCount = skipped;
             this.rateLimitedCount = rateLimited;
+            this.unavailableCount = unavailable;
+            this.totalPending = success + failed + skipped + rateLimited + unavailable;
+        }
+
+        /**
+         * Leads handled in this run (scored, failed or skipped), the rest were not processed
+         */
+        public int getProcessedCount() {
+            return successCount + failedCount + skippedCount;
+        }
+    }
+
+    public static class LeadJobStarted {
+        public String jobId;
+        public int totalPending;
+        public String destination;
+        public boolean alreadyRunning;
+
+        public LeadJobStarted(String jobId, int total, String destination, boolean alreadyRunning) {
+            this.jobId = jobId;
             this.totalPending = total;
+            this.destination = destination;
+            this.alreadyRunning = alreadyRunning;
         }
     }
 }
\ No newline at end of file
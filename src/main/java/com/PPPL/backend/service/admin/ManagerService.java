@@ -8,15 +8,22 @@ import com.PPPL.backend.model.layanan.Layanan;
 import com.PPPL.backend.repository.admin.AdminRepository;
 import com.PPPL.backend.repository.admin.ManagerRepository;
 import com.PPPL.backend.repository.layanan.LayananRepository;
+import com.PPPL.backend.repository.common.SearchSpecifications;
+import com.PPPL.backend.util.PageResults;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,6 +31,8 @@ public class ManagerService {
 
     private static final Logger log = LoggerFactory.getLogger(ManagerService.class);
 
+    private static final Set<String> SORT_FIELDS = Set.of("idManager", "namaManager", "emailManager", "divisi", "tglMulai");
+
     @Autowired
     private ManagerRepository managerRepository;
 
@@ -138,26 +147,22 @@ public class ManagerService {
         log.info("Manager deleted: id={}", id);
     }
 
-    public List<ManagerDTO> searchManagers(String keyword, String divisi) {
-        List<Manager> managers = managerRepository.findAll();
-
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            String kw = keyword.trim().toLowerCase();
-            managers = managers.stream()
-                .filter(m -> m.getNamaManager().toLowerCase().contains(kw) ||
-                    m.getEmailManager().toLowerCase().contains(kw))
-                .collect(Collectors.toList());
-        }
-
-        if (divisi != null && !divisi.trim().isEmpty()) {
-            managers = managers.stream()
-                .filter(m -> divisi.equalsIgnoreCase(m.getDivisi()))
-                .collect(Collectors.toList());
-        }
-
-        return managers.stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+    /**
+     * Search manager by keyword (nama / email) &/ divisi, paginated in the database
+     */
+    public Map<String, Object> searchManagers(String keyword, String divisi,
+                                              int page, int size, String sort) {
+        Specification<Manager> spec = Specification.allOf(
+            SearchSpecifications.keyword(keyword, "namaManager", "emailManager"),
+            SearchSpecifications.equalIgnoreCase("divisi", divisi)
+        );
+
+        Page<Manager> managerPage = managerRepository.findAll(spec,
+            PageResults.pageable(page, size, sort, SORT_FIELDS, Sort.by("idManager")));
+
+        return PageResults.toResponse("managers",
+            managerPage.getContent().stream().map(this::convertToDTO).collect(Collectors.toList()),
+            managerPage);
     }
 
     public List<String> getDivisiList() {
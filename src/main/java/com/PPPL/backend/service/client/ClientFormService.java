@@ -1,6 +1,7 @@
 package com.PPPL.backend.service.client;
 
 import com.PPPL.backend.data.client.ClientFormDTO;
+import com.PPPL.backend.event.LeadScoringEventPublisher;
 import com.PPPL.backend.event.NotificationEventPublisher;
 import com.PPPL.backend.handler.ResourceNotFoundException;
 import com.PPPL.backend.model.admin.Klien;
@@ -11,6 +12,7 @@ import com.PPPL.backend.model.layanan.RequestLayanan;
 import com.PPPL.backend.repository.client.KlienRepository;
 import com.PPPL.backend.repository.layanan.LayananRepository;
 import com.PPPL.backend.repository.layanan.RequestLayananRepository;
+import com.PPPL.backend.service.layanan.RequestMonthlyRollupService;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,6 +37,12 @@ public class ClientFormService {
     @Autowired
     private NotificationEventPublisher notificationPublisher;
 
+    @Autowired
+    private LeadScoringEventPublisher leadScoringPublisher;
+
+    @Autowired
+    private RequestMonthlyRollupService rollupService;
+
     /**
      * Submit form dari client - auto create Klien + RequestLayanan
      */
@@ -77,6 +85,7 @@ public class ClientFormService {
         request.setAiAnalyzed(false);
 
         RequestLayanan savedRequest = requestLayananRepository.save(request);
+        rollupService.recordCreated(savedRequest);
 
         log.info("Request layanan created: id={}, layanan={}",
             savedRequest.getIdRequest(), layanan.getNamaLayanan());
@@ -101,6 +110,9 @@ public class ClientFormService {
         );
         log.info("Published PENDING_VERIFICATION notification");
 
+        // 6. Enqueue background lead scoring (after commit)
+        leadScoringPublisher.publishLeadSubmitted(savedRequest.getIdRequest());
+
         return new ClientFormResult(
             savedRequest.getIdRequest(),
             klien.getNamaKlien(),
@@ -28,17 +28,20 @@ public class RequestLayananService {
     private final NotificationEventPublisher notificationPublisher;
     private final KlienRepository klienRepository;
     private final AdminRepository adminRepository;
+    private final RequestMonthlyRollupService rollupService;
 
     public RequestLayananService(
             RequestLayananRepository requestLayananRepository,
             NotificationEventPublisher notificationPublisher,
             KlienRepository klienRepository,
-            AdminRepository adminRepository
+            AdminRepository adminRepository,
+            RequestMonthlyRollupService rollupService
     ) {
         this.requestLayananRepository = requestLayananRepository;
         this.notificationPublisher = notificationPublisher;
         this.klienRepository = klienRepository;
         this.adminRepository = adminRepository;
+        this.rollupService = rollupService;
     }
 
     public List<RequestLayanan> findAll() {
@@ -99,6 +102,7 @@ public class RequestLayananService {
 
         String approverName = admin.getNamaLengkap();
 
+        StatusRequest oldStatus = request.getStatus();
         request.setStatus(StatusRequest.VERIFIKASI);
         request.setTglVerifikasi(new Date());
         request.setKeteranganPenolakan(null);
@@ -109,6 +113,7 @@ public class RequestLayananService {
         klienRepository.save(klien);
         
         RequestLayanan saved = requestLayananRepository.save(request);
+        rollupService.recordStatusChange(saved, oldStatus);
 
         String namaKlien = saved.getKlien().getNamaKlien();
         String namaLayanan = saved.getLayanan().getNamaLayanan();
@@ -143,11 +148,13 @@ public class RequestLayananService {
             throw new RuntimeException("Request sudah ditolak sebelumnya");
         }
 
+        StatusRequest oldStatus = request.getStatus();
         request.setStatus(StatusRequest.DITOLAK);
         request.setTglVerifikasi(new Date());
         request.setKeteranganPenolakan(keterangan);
 
         RequestLayanan saved = requestLayananRepository.save(request);
+        rollupService.recordStatusChange(saved, oldStatus);
 
         String namaKlien = saved.getKlien().getNamaKlien();
         String namaLayanan = saved.getLayanan().getNamaLayanan();
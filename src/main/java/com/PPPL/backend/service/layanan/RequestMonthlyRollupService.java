@@ -0,0 +1,138 @@
+package com.PPPL.backend.service.layanan;
+
+import com.PPPL.backend.model.enums.StatusRequest;
+import com.PPPL.backend.model.layanan.RequestLayanan;
+import com.PPPL.backend.repository.layanan.RequestLayananMonthlyRollupRepository;
+import com.PPPL.backend.service.admin.DashboardService;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps request_layanan_monthly_rollup in sync with request changes (delta upserts),
+ * full rebuild nightly to catch changes outside these paths (e.g. cascade deletes)
+ */
+@Service
+@Slf4j
+public class RequestMonthlyRollupService {
+
+    private static final int TOTAL = 0, HOT = 1, WARM = 2, COLD = 3, UNSCORED = 4,
+            VERIFIED = 5, REJECTED = 6, PENDING = 7;
+
+    private final RequestLayananMonthlyRollupRepository rollupRepository;
+    private final DashboardService dashboardService;
+
+    public RequestMonthlyRollupService(
+            RequestLayananMonthlyRollupRepository rollupRepository,
+            DashboardService dashboardService) {
+        this.rollupRepository = rollupRepository;
+        this.dashboardService = dashboardService;
+    }
+
+    /**
+     * New request saved
+     */
+    public void recordCreated(RequestLayanan request) {
+        long[] delta = new long[8];
+        delta[TOTAL] = 1;
+        addScore(delta, request.getSkorPrioritas(), 1);
+        addStatus(delta, request.getStatus(), 1);
+        apply(request, delta);
+    }
+
+    /**
+     * Status changed (approve / reject)
+     */
+    public void recordStatusChange(RequestLayanan request, StatusRequest oldStatus) {
+        if (oldStatus == request.getStatus()) {
+            return;
+        }
+        long[] delta = new long[8];
+        addStatus(delta, oldStatus, -1);
+        addStatus(delta, request.getStatus(), 1);
+        apply(request, delta);
+    }
+
+    /**
+     * Skor prioritas changed (AI / rule scoring)
+     */
+    public void recordScoreChange(RequestLayanan request, String oldSkor) {
+        long[] delta = new long[8];
+        addScore(delta, oldSkor, -1);
+        addScore(delta, request.getSkorPrioritas(), 1);
+        apply(request, delta);
+    }
+
+    /**
+     * Recompute all rollup rows from request_layanan.
+     * Runs on one instance at a time (Postgres advisory locks held until commit),
+     * deltas wait for it; the dashboard snapshot is dropped only after commit.
+     */
+    @Transactional
+    @Scheduled(cron = "${dashboard.rollup.rebuild-cron:0 30 2 * * *}")
+    public void rebuild() {
+        if (!rollupRepository.tryLockRebuild()) {
+            log.info("Monthly rollup rebuild skipped, already running on another instance");
+            return;
+        }
+        rollupRepository.lockDeltas();
+
+        rollupRepository.deleteAllRows();
+        int months = rollupRepository.insertFromRequests();
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dashboardService.resetCurrentMonthSnapshot();
+            }
+        });
+        log.info("Monthly rollup rebuilt: {} months", months);
+    }
+
+    // Private Helper Methods
+
+    private void apply(RequestLayanan request, long[] delta) {
+        if (request.getTglRequest() == null || isZero(delta)) {
+            return;
+        }
+        rollupRepository.applyDelta(request.getTglRequest(),
+            delta[TOTAL], delta[HOT], delta[WARM], delta[COLD], delta[UNSCORED],
+            delta[VERIFIED], delta[REJECTED], delta[PENDING]);
+        dashboardService.onRollupDelta(request.getTglRequest(), delta);
+    }
+
+    private void addScore(long[] delta, String skor, int sign) {
+        if (skor == null) {
+            delta[UNSCORED] += sign;
+            return;
+        }
+        switch (skor.toUpperCase()) {
+            case "HOT" -> delta[HOT] += sign;
+            case "WARM" -> delta[WARM] += sign;
+            case "COLD" -> delta[COLD] += sign;
+            default -> { }
+        }
+    }
+
+    private void addStatus(long[] delta, StatusRequest status, int sign) {
+        if (status == null) {
+            return;
+        }
+        switch (status) {
+            case VERIFIKASI -> delta[VERIFIED] += sign;
+            case DITOLAK -> delta[REJECTED] += sign;
+            case MENUNGGU_VERIFIKASI -> delta[PENDING] += sign;
+        }
+    }
+
+    private boolean isZero(long[] delta) {
+        for (long value : delta) {
+            if (value != 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,261 @@
+package com.PPPL.backend.service.lead;
+
+import com.PPPL.backend.handler.GeminiUnavailableException;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker + AIMD concurrency limiter around Gemini calls.
+ * State exposed as gemini.circuit.* / gemini.concurrency.* gauges on /actuator/metrics (SUPER_ADMIN only).
+ */
+@Component
+@Slf4j
+public class GeminiCallGuard {
+
+    public enum CircuitState { CLOSED, OPEN, HALF_OPEN }
+
+    @Value("${google.gemini.guard.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${google.gemini.guard.open-duration-ms:30000}")
+    private long openDurationMillis;
+
+    @Value("${google.gemini.guard.initial-limit:4}")
+    private double limit;
+
+    @Value("${google.gemini.guard.min-limit:1}")
+    private int minLimit;
+
+    @Value("${google.gemini.guard.max-limit:20}")
+    private int maxLimit;
+
+    @Value("${google.gemini.guard.acquire-timeout-ms:5000}")
+    private long acquireTimeoutMillis;
+
+    @Value("${google.gemini.guard.slow-call-ms:10000}")
+    private long slowCallMillis;
+
+    private final Object lock = new Object();
+
+    private CircuitState state = CircuitState.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt = 0;
+    private boolean halfOpenTrialRunning = false;
+    private int inFlight = 0;
+
+    /**
+     * Run Gemini call through breaker & limiter, fail fast when degraded
+     */
+    public <T> T execute(Supplier<T> call) {
+        return run(acquire(), call);
+    }
+
+    /**
+     * Run Gemini call admitted by the scheduler. Breaker is checked before queuing and the
+     * permit is taken at the lane turn before the quota token, so a call the breaker or
+     * limiter would reject never waits in a lane for nothing or spends a token.
+     */
+    public <T> T execute(GeminiWorkScheduler scheduler, LongSupplier tryTakeToken, Supplier<T> call) {
+        checkAvailable();
+
+        boolean[] trial = new boolean[1];
+        scheduler.admit(() -> {
+            trial[0] = acquire();
+            long waitMillis;
+            try {
+                waitMillis = tryTakeToken.getAsLong();
+            } catch (RuntimeException e) {
+                release(trial[0]);
+                throw e;
+            }
+            if (waitMillis > 0) {
+                // No token yet, hand the permit back while parked in the lane
+                release(trial[0]);
+            }
+            return waitMillis;
+        });
+
+        return run(trial[0], call);
+    }
+
+    /**
+     * Fail fast when the circuit is open or the half-open trial is already running
+     */
+    public void checkAvailable() {
+        synchronized (lock) {
+            CircuitState current = currentState();
+            if (current == CircuitState.OPEN) {
+                throw new GeminiUnavailableException("Gemini sedang tidak tersedia (circuit open), coba lagi nanti");
+            }
+            if (current == CircuitState.HALF_OPEN && halfOpenTrialRunning) {
+                throw new GeminiUnavailableException("Gemini sedang dipulihkan (circuit half-open), coba lagi nanti");
+            }
+        }
+    }
+
+    public CircuitState getState() {
+        synchronized (lock) {
+            return currentState();
+        }
+    }
+
+    public double getLimit() {
+        synchronized (lock) {
+            return Math.floor(limit);
+        }
+    }
+
+    public int getInFlight() {
+        synchronized (lock) {
+            return inFlight;
+        }
+    }
+
+    public int getConsecutiveFailures() {
+        synchronized (lock) {
+            return consecutiveFailures;
+        }
+    }
+
+    // Private Helper Methods
+
+    /**
+     * Send call on an acquired permit, feed the outcome to breaker & limiter
+     */
+    private <T> T run(boolean trial, Supplier<T> call) {
+        long start = System.currentTimeMillis();
+
+        try {
+            T result = call.get();
+            onSuccess(System.currentTimeMillis() - start, trial);
+            return result;
+
+        } catch (RuntimeException e) {
+            if (isUpstreamFailure(e)) {
+                onFailure(trial);
+            } else {
+                onSuccess(System.currentTimeMillis() - start, trial);
+            }
+            throw e;
+
+        } finally {
+            // Also on Error: a half-open trial that never reported must not block the next one
+            release(trial);
+        }
+    }
+
+    /**
+     * Wait (bounded) for a permit. Returns true if this call is the half-open trial.
+     */
+    private boolean acquire() {
+        synchronized (lock) {
+            CircuitState current = currentState();
+            if (current == CircuitState.OPEN) {
+                throw new GeminiUnavailableException("Gemini sedang tidak tersedia (circuit open), coba lagi nanti");
+            }
+
+            boolean trial = false;
+            if (current == CircuitState.HALF_OPEN) {
+                if (halfOpenTrialRunning) {
+                    throw new GeminiUnavailableException("Gemini sedang dipulihkan (circuit half-open), coba lagi nanti");
+                }
+                halfOpenTrialRunning = true;
+                trial = true;
+            }
+
+            long deadline = System.currentTimeMillis() + acquireTimeoutMillis;
+            while (!trial && inFlight >= (int) Math.floor(limit)) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    throw new GeminiUnavailableException("Gemini sedang sibuk (concurrency limit " + (int) Math.floor(limit) + ")");
+                }
+                try {
+                    lock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new GeminiUnavailableException("Menunggu slot Gemini dibatalkan");
+                }
+            }
+
+            inFlight++;
+            return trial;
+        }
+    }
+
+    /**
+     * Give back a permit, used or not; a trial permit ends the half-open trial
+     */
+    private void release(boolean trial) {
+        synchronized (lock) {
+            if (trial) {
+                halfOpenTrialRunning = false;
+            }
+            inFlight--;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Additive increase, multiplicative decrease on slow calls
+     */
+    private void onSuccess(long latencyMillis, boolean trial) {
+        synchronized (lock) {
+            consecutiveFailures = 0;
+            if (trial) {
+                halfOpenTrialRunning = false;
+                state = CircuitState.CLOSED;
+                log.info("Gemini circuit CLOSED after successful trial call");
+            }
+
+            if (latencyMillis > slowCallMillis) {
+                limit = Math.max(minLimit, limit / 2);
+            } else if (inFlight >= (int) Math.floor(limit)) {
+                // Only grow when the limit is actually being used
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        }
+    }
+
+    private void onFailure(boolean trial) {
+        synchronized (lock) {
+            limit = Math.max(minLimit, limit / 2);
+            consecutiveFailures++;
+
+            if (trial || consecutiveFailures >= failureThreshold) {
+                halfOpenTrialRunning = false;
+                if (state != CircuitState.OPEN) {
+                    log.warn("Gemini circuit OPEN after {} consecutive failures", consecutiveFailures);
+                }
+                state = CircuitState.OPEN;
+                openedAt = System.currentTimeMillis();
+            }
+        }
+    }
+
+    /**
+     * OPEN -> HALF_OPEN once open duration elapsed (caller holds lock)
+     */
+    private CircuitState currentState() {
+        if (state == CircuitState.OPEN && System.currentTimeMillis() - openedAt >= openDurationMillis) {
+            state = CircuitState.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+     * 5xx, 429, timeouts & I/O errors count as failures; other 4xx are caller errors
+     */
+    private boolean isUpstreamFailure(RuntimeException e) {
+        if (e instanceof HttpClientErrorException clientError) {
+            return clientError.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+        }
+        return true;
+    }
+}
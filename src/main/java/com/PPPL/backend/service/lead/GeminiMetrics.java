@@ -0,0 +1,110 @@
+package com.PPPL.backend.service.lead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Micrometer meters for Gemini calls & lead scoring, exposed on /actuator/metrics
+ */
+@Component
+public class GeminiMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public GeminiMetrics(MeterRegistry meterRegistry, GeminiCallGuard geminiCallGuard) {
+        this.meterRegistry = meterRegistry;
+
+        meterRegistry.gauge("gemini.concurrency.limit", geminiCallGuard, GeminiCallGuard::getLimit);
+        meterRegistry.gauge("gemini.concurrency.in-flight", geminiCallGuard, GeminiCallGuard::getInFlight);
+        meterRegistry.gauge("gemini.circuit.open", geminiCallGuard,
+            guard -> guard.getState() == GeminiCallGuard.CircuitState.CLOSED ? 0 : 1);
+        meterRegistry.gauge("gemini.circuit.half-open", geminiCallGuard,
+            guard -> guard.getState() == GeminiCallGuard.CircuitState.HALF_OPEN ? 1 : 0);
+        meterRegistry.gauge("gemini.circuit.consecutive-failures", geminiCallGuard,
+            GeminiCallGuard::getConsecutiveFailures);
+    }
+
+    /**
+     * HTTP call latency, call = single|batch, outcome = success|error
+     */
+    public void recordCall(String call, String outcome, long durationMillis) {
+        Timer.builder("gemini.request.duration")
+            .description("Gemini generateContent latency")
+            .tag("call", call)
+            .tag("outcome", outcome)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(durationMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Prompt size in characters, before it reaches Gemini
+     */
+    public void recordPromptChars(String call, int chars) {
+        DistributionSummary.builder("gemini.prompt.chars")
+            .baseUnit("chars")
+            .tag("call", call)
+            .register(meterRegistry)
+            .record(chars);
+    }
+
+    /**
+     * Token counts from usageMetadata, type = prompt|output|thoughts|total
+     */
+    public void recordTokens(String type, int tokens) {
+        DistributionSummary.builder("gemini.tokens")
+            .description("Gemini token usage per call (usageMetadata)")
+            .baseUnit("tokens")
+            .tag("type", type)
+            .publishPercentiles(0.5, 0.95)
+            .register(meterRegistry)
+            .record(tokens);
+    }
+
+    /**
+     * Time spent waiting for a lane turn in GeminiWorkScheduler
+     */
+    public void recordSchedulerWait(String lane, long durationMillis) {
+        Timer.builder("gemini.scheduler.wait")
+            .tag("lane", lane)
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry)
+            .record(durationMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public <T> void registerLaneDepth(String lane, T queue, ToDoubleFunction<T> depth) {
+        Gauge.builder("gemini.scheduler.queue.depth", queue, depth)
+            .tag("lane", lane)
+            .register(meterRegistry);
+    }
+
+    public void recordFinishReason(String finishReason) {
+        counter("gemini.finish.reason", "reason", finishReason == null ? "NONE" : finishReason).increment();
+    }
+
+    /**
+     * Output fixed up while parsing (skipped items, normalized fields, missing leads)
+     */
+    public void recordParseRepair(String kind) {
+        counter("gemini.parse.repairs", "kind", kind).increment();
+    }
+
+    /**
+     * Where a lead score came from, source = rules|fingerprint|gemini|error
+     */
+    public void recordLeadResult(String source) {
+        counter("lead.scoring.results", "source", source).increment();
+    }
+
+    private Counter counter(String name, String tagKey, String tagValue) {
+        return Counter.builder(name).tag(tagKey, tagValue).register(meterRegistry);
+    }
+}
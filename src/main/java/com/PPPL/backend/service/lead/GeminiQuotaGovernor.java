@@ -0,0 +1,78 @@
+package com.PPPL.backend.service.lead;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Global (all admins, all instances) token bucket for Gemini calls, stored in Redis.
+ * Callers over budget are parked by GeminiWorkScheduler until the next token is due.
+ */
+@Component
+@Slf4j
+public class GeminiQuotaGovernor {
+
+    private static final String BUCKET_KEY = "rate_limit:ai:gemini:global";
+
+    /**
+     * Refill & take one token atomically, returns 0 if acquired or millis until next token.
+     * Redis TIME is used so all instances share one clock.
+     */
+    private static final RedisScript<Long> TAKE_TOKEN_SCRIPT = new DefaultRedisScript<>("""
+        local capacity = tonumber(ARGV[1])
+        local refillPerMs = tonumber(ARGV[2])
+        local time = redis.call('TIME')
+        local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+        local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+        local tokens = tonumber(bucket[1]) or capacity
+        local ts = tonumber(bucket[2]) or now
+        tokens = math.min(capacity, tokens + math.max(0, now - ts) * refillPerMs)
+        local wait = 0
+        if tokens >= 1 then
+            tokens = tokens - 1
+        else
+            wait = math.ceil((1 - tokens) / refillPerMs)
+        end
+        redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now))
+        redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / refillPerMs) + 1000)
+        return wait
+        """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${google.gemini.quota.requests-per-minute:10}")
+    private int requestsPerMinute;
+
+    @Value("${google.gemini.quota.burst:5}")
+    private int burst;
+
+    public GeminiQuotaGovernor(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /**
+     * Take one token without blocking: 0 if acquired, otherwise millis until next token.
+     * Waiting is left to GeminiWorkScheduler so a waiting caller doesn't hold the lane turn.
+     */
+    public long tryTakeToken() {
+        try {
+            Long waitMillis = stringRedisTemplate.execute(
+                TAKE_TOKEN_SCRIPT,
+                List.of(BUCKET_KEY),
+                String.valueOf(burst),
+                String.valueOf(requestsPerMinute / 60_000.0)
+            );
+            return waitMillis == null ? 0 : waitMillis;
+
+        } catch (Exception e) {
+            // Redis unavailable: don't block scoring, per-instance guard still applies
+            log.warn("Gemini quota check skipped, Redis error: {}", e.getMessage());
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.PPPL.backend.service.lead;
+
+import com.PPPL.backend.data.lead.LeadScoringResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Streaming parser for Gemini generateContent responses (structured output mode):
+ * reads candidates[0] text & finishReason, then the lead JSON inside it, without a JSON tree.
+ * Repairs & token usage are recorded on GeminiMetrics.
+ */
+@Component
+@Slf4j
+public class GeminiResponseParser {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    private final GeminiMetrics geminiMetrics;
+
+    public GeminiResponseParser(GeminiMetrics geminiMetrics) {
+        this.geminiMetrics = geminiMetrics;
+    }
+
+    /**
+     * Parse response from Gemini API (single lead)
+     */
+    public LeadScoringResponse parseLead(String responseBody) throws IOException {
+        String aiText = extractCandidateText(responseBody);
+
+        try (JsonParser parser = jsonFactory.createParser(aiText)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new RuntimeException("Gemini response bukan JSON object");
+            }
+            return readLead(parser).response();
+        }
+    }
+
+    /**
+     * Parse batch response from Gemini API (JSON array keyed by idRequest)
+     * Invalid items are skipped
+     */
+    public Map<Integer, LeadScoringResponse> parseLeadBatch(String responseBody) throws IOException {
+        String aiText = extractCandidateText(responseBody);
+
+        Map<Integer, LeadScoringResponse> results = new HashMap<>();
+        try (JsonParser parser = jsonFactory.createParser(aiText)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new RuntimeException("Batch response bukan JSON array");
+            }
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                try {
+                    ParsedLead lead = readLead(parser);
+                    if (lead.idRequest() != null) {
+                        results.put(lead.idRequest(), lead.response());
+                    }
+                } catch (RuntimeException e) {
+                    // Invalid item: skip rest of object, continue with next
+                    log.warn("Skipping invalid batch item: {}", e.getMessage());
+                    geminiMetrics.recordParseRepair("invalid_item");
+                    if (parser.currentToken() != JsonToken.END_OBJECT) {
+                        skipToEndOfObject(parser);
+                    }
+                }
+            }
+        }
+
+        return results;
+    }
+
+    // Private Helper Methods
+
+    /**
+     * Stream through Gemini response body to candidates[0] text & finishReason
+     * without building a JSON tree
+     */
+    private String extractCandidateText(String responseBody) throws IOException {
+        String finishReason = null;
+        StringBuilder text = null;
+
+        try (JsonParser parser = jsonFactory.createParser(responseBody)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new RuntimeException("Invalid Gemini response");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+
+                if ("candidates".equals(field) && token == JsonToken.START_ARRAY) {
+                    if (parser.nextToken() == JsonToken.START_OBJECT) {
+                        // First candidate
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            String candidateField = parser.currentName();
+                            JsonToken candidateToken = parser.nextToken();
+
+                            if ("finishReason".equals(candidateField)) {
+                                finishReason = parser.getText();
+                            } else if ("content".equals(candidateField) && candidateToken == JsonToken.START_OBJECT) {
+                                text = readPartsText(parser);
+                            } else {
+                                parser.skipChildren();
+                            }
+                        }
+                        // Other candidates
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            parser.skipChildren();
+                        }
+                    }
+                } else if ("usageMetadata".equals(field) && token == JsonToken.START_OBJECT) {
+                    recordUsageMetadata(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        geminiMetrics.recordFinishReason(finishReason);
+
+        if (text == null) {
+            throw new RuntimeException("No candidates in Gemini response");
+        }
+        if ("MAX_TOKENS".equals(finishReason)) {
+            throw new RuntimeException("Gemini response terpotong (MAX_TOKENS)");
+        }
+        if (text.length() == 0) {
+            throw new RuntimeException("Empty response from Gemini (finishReason " + finishReason + ")");
+        }
+
+        return text.toString();
+    }
+
+    /**
+     * Record usageMetadata token counts, parser positioned on usageMetadata START_OBJECT
+     */
+    private void recordUsageMetadata(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+
+            if (!token.isNumeric()) {
+                parser.skipChildren();
+                continue;
+            }
+            switch (field) {
+                case "promptTokenCount" -> geminiMetrics.recordTokens("prompt", parser.getIntValue());
+                case "candidatesTokenCount" -> geminiMetrics.recordTokens("output", parser.getIntValue());
+                case "thoughtsTokenCount" -> geminiMetrics.recordTokens("thoughts", parser.getIntValue());
+                case "totalTokenCount" -> geminiMetrics.recordTokens("total", parser.getIntValue());
+                default -> { }
+            }
+        }
+    }
+
+    /**
+     * Concatenate content.parts[].text, parser positioned on content START_OBJECT
+     */
+    private StringBuilder readPartsText(JsonParser parser) throws IOException {
+        StringBuilder text = new StringBuilder();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+
+            if ("parts".equals(field) && token == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String partField = parser.currentName();
+                        parser.nextToken();
+                        if ("text".equals(partField)) {
+                            text.append(parser.getText());
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        return text;
+    }
+
+    /**
+     * Read one lead object straight into LeadScoringResponse & validate it,
+     * parser positioned on START_OBJECT, ends on END_OBJECT
+     */
+    private ParsedLead readLead(JsonParser parser) throws IOException {
+        Integer idRequest = null;
+        LeadScoringResponse response = new LeadScoringResponse();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+
+            switch (field) {
+                case "idRequest" -> {
+                    // Out of int range: invalid item, not a coercion error that fails the whole batch
+                    if (token.isNumeric() && parser.getNumberType() != JsonParser.NumberType.INT) {
+                        throw new RuntimeException("Invalid idRequest: " + parser.getText());
+                    }
+                    idRequest = token.isNumeric() ? parser.getIntValue() : null;
+                }
+                case "skorPrioritas" -> response.setSkorPrioritas(parser.getValueAsString());
+                case "kategori" -> response.setKategori(parser.getValueAsString());
+                case "alasan" -> response.setAlasan(parser.getValueAsString());
+                case "confidence" -> response.setConfidence(parser.getValueAsInt());
+                case "rekomendasi" -> {
+                    // Input can be string or array
+                    if (token == JsonToken.START_ARRAY) {
+                        geminiMetrics.recordParseRepair("rekomendasi_array");
+                        StringJoiner joined = new StringJoiner("; ");
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            if (parser.currentToken().isStructStart()) {
+                                // Nested value: skip it, keep parser on this array
+                                parser.skipChildren();
+                            } else {
+                                joined.add(parser.getValueAsString());
+                            }
+                        }
+                        response.setRekomendasi(joined.toString());
+                    } else {
+                        response.setRekomendasi(parser.getValueAsString());
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        // Validate response
+        if (response.getSkorPrioritas() == null || 
+            (!response.getSkorPrioritas().equals("HOT") && 
+            !response.getSkorPrioritas().equals("WARM") && 
+            !response.getSkorPrioritas().equals("COLD"))) {
+            throw new RuntimeException("Invalid skorPrioritas: " + response.getSkorPrioritas());
+        }
+
+        // Fill in missing fields if any
+        if (response.getRekomendasi() == null || response.getRekomendasi().isEmpty()) {
+            geminiMetrics.recordParseRepair("rekomendasi_default");
+            response.setRekomendasi("Follow up sesuai prioritas lead");
+        }
+
+        return new ParsedLead(idRequest, response);
+    }
+
+    private void skipToEndOfObject(JsonParser parser) throws IOException {
+        int depth = 1;
+        while (depth > 0 && parser.nextToken() != null) {
+            if (parser.currentToken().isStructStart()) depth++;
+            else if (parser.currentToken().isStructEnd()) depth--;
+        }
+    }
+
+    private record ParsedLead(Integer idRequest, LeadScoringResponse response) { }
+}
@@ -2,21 +2,27 @@ package com.PPPL.backend.service.lead;
 
 import com.PPPL.backend.data.lead.LeadScoringRequest;
 import com.PPPL.backend.data.lead.LeadScoringResponse;
+import com.PPPL.backend.handler.GeminiUnavailableException;
 import com.PPPL.backend.model.layanan.RequestLayanan;
 import com.PPPL.backend.repository.layanan.RequestLayananRepository;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.RestClient;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
+@Slf4j
 public class GeminiService {
     
     @Value("${google.gemini.api-key}")
@@ -28,123 +34,327 @@ public class GeminiService {
     @Autowired
     private RequestLayananRepository requestLayananRepository;
     
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    @Autowired
+    private LeadRuleScorer leadRuleScorer;
+    
+    @Autowired
+    private LeadFingerprintService leadFingerprintService;
+    
+    @Autowired
+    private GeminiCallGuard geminiCallGuard;
+    
+    @Autowired
+    private GeminiQuotaGovernor geminiQuotaGovernor;
+    
+    @Autowired
+    private GeminiMetrics geminiMetrics;
     
-    private static final String GEMINI_API_URL = "https://generativelanguage.googleapis.com/v1beta/models/";
+    @Autowired
+    private GeminiWorkScheduler geminiWorkScheduler;
+    
+    @Autowired
+    private LeadAnalysisWriter leadAnalysisWriter;
+    
+    @Autowired
+    private GeminiResponseParser geminiResponseParser;
+    
+    @Autowired
+    @Qualifier("geminiRestClient")
+    private RestClient geminiRestClient;
+    
+    @Value("${google.gemini.max-output-tokens-per-lead:512}")
+    private int maxOutputTokensPerLead;
+    
+    @Value("${google.gemini.base-url:https://generativelanguage.googleapis.com/v1beta/models/}")
+    private String baseUrl;
+    
+    @Value("${google.gemini.record-dir:}")
+    private String recordDir;
+    
+    private static final Map<String, Object> SINGLE_LEAD_SCHEMA = leadSchema(false);
+    private static final Map<String, Object> BATCH_LEAD_SCHEMA = Map.of("type", "ARRAY", "items", leadSchema(true));
     
     /**
      * Analyze leads using Gemini AI
      * CACHED: Results cached for 1 hour per idRequest
+     * RULES: Obvious leads scored locally by LeadRuleScorer without API call
+     * DEDUP: Identical input (fingerprint) reuses stored score without API call
      */
     @Cacheable(value = "leadScoring", key = "'analysis_' + #request.idRequest", unless = "#result.skorPrioritas == 'ERROR'")
     public LeadScoringResponse analyzeLead(LeadScoringRequest request) {
-        System.out.println("=== CACHE MISS: Calling Gemini API for lead " + request.getIdRequest() + " ===");
+        log.info("CACHE MISS: Analyzing lead {}", request.getIdRequest());
         
+        return analyze(request, true);
+    }
+    
+    /**
+     * Single lead analysis, rules & fingerprint lookups only when useShortcuts
+     * (off for an admin refresh, which must always get a fresh Gemini score)
+     */
+    private LeadScoringResponse analyze(LeadScoringRequest request, boolean useShortcuts) {
         LeadScoringResponse result = new LeadScoringResponse();
         
         try {
-            // Validate API key first
+            // 1. Validate data request
+            validateLeadData(request);
+            
+            // 2. Obvious lead -> scored locally by rules, no API call
+            if (useShortcuts) {
+                Optional<LeadScoringResponse> local = leadRuleScorer.score(request);
+                if (local.isPresent()) {
+                    leadAnalysisWriter.save(request.getIdRequest(), local.get());
+                    geminiMetrics.recordLeadResult("rules");
+                    return local.get();
+                }
+            }
+            
+            // 3. Identical input already scored -> reuse without API call
+            String fingerprint = leadFingerprintService.fingerprint(request);
+            if (useShortcuts) {
+                Optional<LeadScoringResponse> stored = leadFingerprintService.find(fingerprint);
+                if (stored.isPresent()) {
+                    leadAnalysisWriter.save(request.getIdRequest(), stored.get());
+                    geminiMetrics.recordLeadResult("fingerprint");
+                    return stored.get();
+                }
+            }
+            
+            // 4. Validate API key
             if (apiKey == null || apiKey.isEmpty() || apiKey.trim().isEmpty()) {
                 throw new RuntimeException("Gemini API Key tidak ditemukan. Pastikan GEMINI_API_KEY sudah di-set di environment variables.");
             }
             
-            // 1. Validate data request
-            validateLeadData(request);
-            
-            // 2. Build Prompt
+            // 5. Build Prompt
             String prompt = buildAnalysisPrompt(request);
             
-            // 3. Prepare request body for Gemini API
-            Map<String, Object> requestBody = new HashMap<>();
-            
-            // Contents array
-            List<Map<String, Object>> contents = new ArrayList<>();
-            Map<String, Object> content = new HashMap<>();
+            // 6. Send request
+            String responseBody = callGeminiApi(prompt, SINGLE_LEAD_SCHEMA, maxOutputTokensPerLead);
             
-            // Parts array
-            List<Map<String, Object>> parts = new ArrayList<>();
-            Map<String, Object> part = new HashMap<>();
-            part.put("text", prompt);
-            parts.add(part);
+            // 7. Parse response
+            result = geminiResponseParser.parseLead(responseBody);
             
-            content.put("parts", parts);
-            contents.add(content);
-            requestBody.put("contents", contents);
+            // 8. Save analysis result to database, fingerprint store & evict cache
+            leadAnalysisWriter.save(request.getIdRequest(), result);
+            leadFingerprintService.store(fingerprint, result);
+            geminiMetrics.recordLeadResult("gemini");
             
-            // Generation config for controlling output
-            Map<String, Object> generationConfig = new HashMap<>();
-            generationConfig.put("temperature", 0.2);
-            generationConfig.put("topK", 20);
-            generationConfig.put("topP", 0.8);
-            generationConfig.put("maxOutputTokens", 8192);
-            requestBody.put("generationConfig", generationConfig);
+        } catch (Exception e) {
+            log.error("Failed to analyze lead {}: {}", request.getIdRequest(), e.getMessage());
+            result = errorResponse(e.getMessage());
+            geminiMetrics.recordLeadResult("error");
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Analyze multiple leads in a single Gemini call
+     * Returns result per idRequest, leads missing from AI output get ERROR result.
+     * When Gemini is unavailable (circuit open, quota/lane wait exceeded) the leads bound
+     * for Gemini are left out of the map: they were not sent and stay pending.
+     */
+    @CacheEvict(value = "leadScoring", allEntries = true)
+    public Map<Integer, LeadScoringResponse> analyzeLeadsBatch(List<LeadScoringRequest> requests) {
+        log.info("BATCH: Analyzing {} leads", requests.size());
+        
+        Map<Integer, LeadScoringResponse> results = new LinkedHashMap<>();
+        
+        try {
+            // Obvious leads scored by rules, identical inputs reused, only misses go to Gemini
+            List<LeadScoringRequest> misses = new ArrayList<>();
+            Map<Integer, String> fingerprints = new HashMap<>();
             
-            // Safety settings
-            List<Map<String, Object>> safetySettings = new ArrayList<>();
-            String[] categories = {
-                "HARM_CATEGORY_HARASSMENT",
-                "HARM_CATEGORY_HATE_SPEECH",
-                "HARM_CATEGORY_SEXUALLY_EXPLICIT",
-                "HARM_CATEGORY_DANGEROUS_CONTENT"
-            };
-            for (String category : categories) {
-                Map<String, Object> setting = new HashMap<>();
-                setting.put("category", category);
-                setting.put("threshold", "BLOCK_NONE");
-                safetySettings.add(setting);
+            for (LeadScoringRequest request : requests) {
+                // Invalid lead fails alone, the rest of the batch still goes out
+                try {
+                    validateLeadData(request);
+                } catch (IllegalArgumentException e) {
+                    log.warn("Lead {} skipped from batch: {}", request.getIdRequest(), e.getMessage());
+                    results.put(request.getIdRequest(), errorResponse(e.getMessage()));
+                    geminiMetrics.recordLeadResult("error");
+                    continue;
+                }
+                
+                Optional<LeadScoringResponse> local = leadRuleScorer.score(request);
+                if (local.isPresent()) {
+                    leadAnalysisWriter.save(request.getIdRequest(), local.get());
+                    geminiMetrics.recordLeadResult("rules");
+                    results.put(request.getIdRequest(), local.get());
+                    continue;
+                }
+                
+                String fingerprint = leadFingerprintService.fingerprint(request);
+                Optional<LeadScoringResponse> stored = leadFingerprintService.find(fingerprint);
+                if (stored.isPresent()) {
+                    leadAnalysisWriter.save(request.getIdRequest(), stored.get());
+                    geminiMetrics.recordLeadResult("fingerprint");
+                    results.put(request.getIdRequest(), stored.get());
+                } else {
+                    fingerprints.put(request.getIdRequest(), fingerprint);
+                    misses.add(request);
+                }
             }
-            requestBody.put("safetySettings", safetySettings);
             
-            // 4. Setup headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("x-goog-api-key", apiKey);
-            
-            // 5. Build URL
-            String url = GEMINI_API_URL + model + ":generateContent?key=" + apiKey;
+            if (misses.isEmpty()) {
+                return results;
+            }
             
-            // Debug logging
-            System.out.println("=== GEMINI API DEBUG ===");
-            System.out.println("URL: " + GEMINI_API_URL + model + ":generateContent");
-            System.out.println("API Key present: " + (apiKey != null && !apiKey.isEmpty()));
-            System.out.println("API Key length: " + (apiKey != null ? apiKey.length() : 0));
-            System.out.println("Model: " + model);
-            System.out.println("Request Body: " + objectMapper.writeValueAsString(requestBody));
-            System.out.println("========================");
+            if (apiKey == null || apiKey.isEmpty() || apiKey.trim().isEmpty()) {
+                throw new RuntimeException("Gemini API Key tidak ditemukan. Pastikan GEMINI_API_KEY sudah di-set di environment variables.");
+            }
             
-            // 6. Send request
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-            ResponseEntity<String> response = restTemplate.exchange(
-                url, 
-                HttpMethod.POST, 
-                entity, 
-                String.class
-            );
+            String responseBody = callGeminiApi(
+                buildBatchAnalysisPrompt(misses), BATCH_LEAD_SCHEMA, maxOutputTokensPerLead * misses.size());
+            Map<Integer, LeadScoringResponse> parsed = geminiResponseParser.parseLeadBatch(responseBody);
             
-            // 7. Parse response
-            if (response.getStatusCode() == HttpStatus.OK) {
-                System.out.println("=== GEMINI RESPONSE ===");
-                System.out.println(response.getBody());
-                System.out.println("=======================");
-                
-                result = parseGeminiResponse(response.getBody());
+            for (LeadScoringRequest request : misses) {
+                LeadScoringResponse result = parsed.get(request.getIdRequest());
+                if (result == null) {
+                    geminiMetrics.recordParseRepair("missing_lead");
+                    geminiMetrics.recordLeadResult("error");
+                    results.put(request.getIdRequest(), errorResponse("Lead tidak ada di hasil batch AI"));
+                    continue;
+                }
                 
-                // 8. Save analysis result to database & evict cache
-                saveAnalysisResultAndEvictCache(request.getIdRequest(), result);
-            } else {
-                throw new RuntimeException("Gemini API error: " + response.getStatusCode());
+                leadAnalysisWriter.save(request.getIdRequest(), result);
+                leadFingerprintService.store(fingerprints.get(request.getIdRequest()), result);
+                geminiMetrics.recordLeadResult("gemini");
+                results.put(request.getIdRequest(), result);
             }
             
+        } catch (GeminiUnavailableException e) {
+            log.warn("Batch of {} leads not sent, Gemini unavailable: {}", requests.size(), e.getMessage());
+            
         } catch (Exception e) {
-            e.printStackTrace();
-            result.setSkorPrioritas("ERROR");
-            result.setKategori("UNKNOWN");
-            result.setAlasan("Gagal menganalisa: " + e.getMessage());
-            result.setConfidence(0);
-            result.setRekomendasi("Silakan coba lagi atau hubungi administrator");
+            log.error("Failed to analyze batch of {} leads: {}", requests.size(), e.getMessage());
+            for (LeadScoringRequest request : requests) {
+                if (!results.containsKey(request.getIdRequest())) {
+                    results.put(request.getIdRequest(), errorResponse(e.getMessage()));
+                    geminiMetrics.recordLeadResult("error");
+                }
+            }
+        }
+        
+        return results;
+    }
+    
+    /**
+     * Send prompt to Gemini generateContent endpoint in JSON mode, return raw response body
+     */
+    private String callGeminiApi(String prompt, Map<String, Object> responseSchema, int maxOutputTokens) {
+        // Prepare request body for Gemini API
+        Map<String, Object> requestBody = new HashMap<>();
+        
+        // Contents array
+        List<Map<String, Object>> contents = new ArrayList<>();
+        Map<String, Object> content = new HashMap<>();
+        
+        // Parts array
+        List<Map<String, Object>> parts = new ArrayList<>();
+        Map<String, Object> part = new HashMap<>();
+        part.put("text", prompt);
+        parts.add(part);
+        
+        content.put("parts", parts);
+        contents.add(content);
+        requestBody.put("contents", contents);
+        
+        // Generation config: structured JSON output, no thinking, small output budget
+        Map<String, Object> generationConfig = new HashMap<>();
+        generationConfig.put("temperature", 0.2);
+        generationConfig.put("topK", 20);
+        generationConfig.put("topP", 0.8);
+        generationConfig.put("maxOutputTokens", maxOutputTokens);
+        generationConfig.put("responseMimeType", "application/json");
+        generationConfig.put("responseSchema", responseSchema);
+        generationConfig.put("thinkingConfig", Map.of("thinkingBudget", 0));
+        requestBody.put("generationConfig", generationConfig);
+        
+        // Safety settings
+        List<Map<String, Object>> safetySettings = new ArrayList<>();
+        String[] categories = {
+            "HARM_CATEGORY_HARASSMENT",
+            "HARM_CATEGORY_HATE_SPEECH",
+            "HARM_CATEGORY_SEXUALLY_EXPLICIT",
+            "HARM_CATEGORY_DANGEROUS_CONTENT"
+        };
+        for (String category : categories) {
+            Map<String, Object> setting = new HashMap<>();
+            setting.put("category", category);
+            setting.put("threshold", "BLOCK_NONE");
+            safetySettings.add(setting);
         }
+        requestBody.put("safetySettings", safetySettings);
+        
+        // Build URL
+        String url = baseUrl + model + ":generateContent";
+        
+        log.debug("Calling Gemini {} (prompt {} chars, maxOutputTokens {})", model, prompt.length(), maxOutputTokens);
         
+        String call = responseSchema == BATCH_LEAD_SCHEMA ? "batch" : "single";
+        geminiMetrics.recordPromptChars(call, prompt.length());
+        
+        // Send request through circuit breaker & concurrency limiter: breaker checked before
+        // the lane wait, global quota token (shared by all admins & instances) taken only
+        // once a permit is held (4xx/5xx thrown as RestClientResponseException)
+        // Latency measured from send, lane wait is recorded by the scheduler
+        long[] start = { System.currentTimeMillis() };
+        ResponseEntity<String> response;
+        try {
+            response = geminiCallGuard.execute(
+                geminiWorkScheduler,
+                geminiQuotaGovernor::tryTakeToken,
+                () -> {
+                    start[0] = System.currentTimeMillis();
+                    return geminiRestClient.post()
+                        .uri(url)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("x-goog-api-key", apiKey)
+                        .body(requestBody)
+                        .retrieve()
+                        .toEntity(String.class);
+                });
+            geminiMetrics.recordCall(call, "success", System.currentTimeMillis() - start[0]);
+            
+        } catch (RuntimeException e) {
+            String outcome = e instanceof GeminiUnavailableException ? "rejected" : "error";
+            geminiMetrics.recordCall(call, outcome, System.currentTimeMillis() - start[0]);
+            throw e;
+        }
+        
+        if (response.getStatusCode() != HttpStatus.OK) {
+            throw new RuntimeException("Gemini API error: " + response.getStatusCode());
+        }
+        
+        recordResponse(call, response.getBody());
+        return response.getBody();
+    }
+    
+    /**
+     * Save raw response for replay by the Gemini stub (only when google.gemini.record-dir is set)
+     */
+    private void recordResponse(String call, String body) {
+        if (recordDir.isBlank() || body == null) {
+            return;
+        }
+        try {
+            Path dir = Files.createDirectories(Path.of(recordDir));
+            Files.writeString(dir.resolve(System.currentTimeMillis() + "-" + call + "-" + UUID.randomUUID() + ".json"), body);
+        } catch (IOException e) {
+            log.warn("Failed to record Gemini response: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Build ERROR result (not cached, not saved)
+     */
+    private LeadScoringResponse errorResponse(String message) {
+        LeadScoringResponse result = new LeadScoringResponse();
+        result.setSkorPrioritas("ERROR");
+        result.setKategori("UNKNOWN");
+        result.setAlasan("Gagal menganalisa: " + message);
+        result.setConfidence(0);
+        result.setRekomendasi("Silakan coba lagi atau hubungi administrator");
         return result;
     }
     
@@ -161,13 +371,37 @@ public class GeminiService {
     }
     
     /**
-     * Build prompt for analyze lead (SHORTENED VERSION)
+     * Build prompt for analyze lead (output format enforced by responseSchema)
      */
     private String buildAnalysisPrompt(LeadScoringRequest request) {
         StringBuilder prompt = new StringBuilder();
         prompt.append("Analisa lead scoring untuk klien:\n\n");
         
         prompt.append("DATA:\n");
+        appendLeadData(prompt, request);
+        appendCriteria(prompt);
+        
+        return prompt.toString();
+    }
+    
+    /**
+     * Build prompt for analyze multiple leads in one call
+     */
+    private String buildBatchAnalysisPrompt(List<LeadScoringRequest> requests) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("Analisa lead scoring untuk ").append(requests.size()).append(" klien berikut:\n\n");
+        
+        for (LeadScoringRequest request : requests) {
+            prompt.append("DATA idRequest=").append(request.getIdRequest()).append(":\n");
+            appendLeadData(prompt, request);
+        }
+        appendCriteria(prompt);
+        prompt.append("Kembalikan satu object per idRequest.\n");
+        
+        return prompt.toString();
+    }
+    
+    private void appendLeadData(StringBuilder prompt, LeadScoringRequest request) {
         prompt.append("- Nama: ").append(request.getNamaKlien()).append("\n");
         prompt.append("- Perusahaan: ").append(orDefault(request.getPerusahaan(), "N/A")).append("\n");
         prompt.append("- Email: ").append(request.getEmailKlien()).append("\n");
@@ -175,23 +409,14 @@ public class GeminiService {
         prompt.append("- Budget: ").append(orDefault(request.getAnggaran(), "N/A")).append("\n");
         prompt.append("- Timeline: ").append(orDefault(request.getWaktuImplementasi(), "N/A")).append("\n");
         prompt.append("- Pesan: ").append(orDefault(request.getPesan(), "N/A")).append("\n\n");
-        
+    }
+    
+    private void appendCriteria(StringBuilder prompt) {
         prompt.append("KRITERIA:\n");
         prompt.append("HOT: Budget >50jt, Timeline <1 bulan/urgent, Email corporate\n");
         prompt.append("WARM: Budget 20-50jt, Timeline 1-3 bulan\n");
         prompt.append("COLD: Budget <20jt/tidak tahu, Timeline fleksibel, Email personal\n\n");
-        
-        prompt.append("OUTPUT (MUST BE VALID JSON, NO MARKDOWN):\n");
-        prompt.append("{\n");
-        prompt.append("  \"skorPrioritas\": \"HOT/WARM/COLD\",\n");
-        prompt.append("  \"kategori\": \"tipe bisnis\",\n");
-        prompt.append("  \"alasan\": \"penjelasan singkat\",\n");
-        prompt.append("  \"confidence\": 85,\n");
-        prompt.append("  \"rekomendasi\": \"action items dalam SATU STRING, bukan array\"\n");
-        prompt.append("}\n");
-        prompt.append("IMPORTANT: rekomendasi harus string, bukan array!\n");
-        
-        return prompt.toString();
+        prompt.append("kategori = tipe bisnis, alasan = penjelasan singkat, rekomendasi = action items dalam satu kalimat.\n");
     }
     
     /**
@@ -202,193 +427,93 @@ public class GeminiService {
     }
     
     /**
-     * Parse response from Gemini API
+     * Response schema for one lead (batch items also carry idRequest)
      */
-    private LeadScoringResponse parseGeminiResponse(String responseBody) throws Exception {
-        JsonNode root = objectMapper.readTree(responseBody);
-        
-        // Extract text from response
-        JsonNode candidates = root.path("candidates");
-        if (candidates.isEmpty()) {
-            throw new RuntimeException("No candidates in Gemini response");
-        }
-        
-        // Check finish reason
-        String finishReason = candidates.get(0).path("finishReason").asText();
-        System.out.println("=== FINISH REASON: " + finishReason + " ===");
-        
-        String aiText = candidates
-            .get(0)
-            .path("content")
-            .path("parts")
-            .get(0)
-            .path("text")
-            .asText();
-        
-        if (aiText == null || aiText.isEmpty()) {
-            throw new RuntimeException("Empty response from Gemini");
-        }
-        
-        System.out.println("=== AI TEXT BEFORE CLEANING ===");
-        System.out.println(aiText);
-        System.out.println("================================");
-        
-        // Clean JSON
-        String cleanJson = aiText
-            .replace("```json", "")
-            .replace("```", "")
-            .trim();
-        
-        // Handle if JSON is wrapped in text
-        int jsonStart = cleanJson.indexOf("{");
-        int jsonEnd = cleanJson.lastIndexOf("}");
-        
-        if (jsonStart >= 0 && jsonEnd > jsonStart) {
-            cleanJson = cleanJson.substring(jsonStart, jsonEnd + 1);
-        } else {
-            System.out.println("=== WARNING: Incomplete JSON, attempting repair ===");
-            cleanJson = repairIncompleteJson(cleanJson);
+    private static Map<String, Object> leadSchema(boolean withIdRequest) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        List<String> required = new ArrayList<>();
+        if (withIdRequest) {
+            properties.put("idRequest", Map.of("type", "INTEGER"));
+            required.add("idRequest");
         }
+        properties.put("skorPrioritas", Map.of("type", "STRING", "enum", List.of("HOT", "WARM", "COLD")));
+        properties.put("kategori", Map.of("type", "STRING"));
+        properties.put("alasan", Map.of("type", "STRING"));
+        properties.put("confidence", Map.of("type", "INTEGER"));
+        properties.put("rekomendasi", Map.of("type", "STRING"));
+        required.addAll(List.of("skorPrioritas", "kategori", "alasan", "confidence", "rekomendasi"));
         
-        System.out.println("=== CLEANED JSON ===");
-        System.out.println(cleanJson);
-        System.out.println("====================");
-        
-        // Parse to LeadScoringResponse include handle array rekomendasi
-        LeadScoringResponse response;
-        try {
-            // Parse to JsonNode fist for flexible handling
-            JsonNode jsonNode = objectMapper.readTree(cleanJson);
-            
-            response = new LeadScoringResponse();
-            response.setSkorPrioritas(jsonNode.get("skorPrioritas").asText());
-            response.setKategori(jsonNode.get("kategori").asText());
-            response.setAlasan(jsonNode.get("alasan").asText());
-            response.setConfidence(jsonNode.get("confidence").asInt());
-            
-            // Handle rekomendasi - input can be string or array
-            JsonNode rekomendasiNode = jsonNode.get("rekomendasi");
-            if (rekomendasiNode != null) {
-                if (rekomendasiNode.isArray()) {
-                    // Convert array to string
-                    StringBuilder sb = new StringBuilder();
-                    for (int i = 0; i < rekomendasiNode.size(); i++) {
-                        sb.append(rekomendasiNode.get(i).asText());
-                        if (i < rekomendasiNode.size() - 1) {
-                            sb.append("; ");
-                        }
-                    }
-                    response.setRekomendasi(sb.toString());
-                } else {
-                    response.setRekomendasi(rekomendasiNode.asText());
-                }
-            } else {
-                response.setRekomendasi("Follow up sesuai prioritas lead");
-            }
-            
-        } catch (Exception e) {
-            System.out.println("=== PARSE ERROR: " + e.getMessage() + " ===");
-            e.printStackTrace();
-            
-            // If MAX_TOKENS, try to repair and parse again
-            if ("MAX_TOKENS".equals(finishReason)) {
-                cleanJson = repairIncompleteJson(aiText);
-                return parseGeminiResponse(responseBody); // Recursive retry
-            } else {
-                throw e;
-            }
-        }
-        
-        // Validate response
-        if (response.getSkorPrioritas() == null || 
-            (!response.getSkorPrioritas().equals("HOT") && 
-            !response.getSkorPrioritas().equals("WARM") && 
-            !response.getSkorPrioritas().equals("COLD"))) {
-            throw new RuntimeException("Invalid skorPrioritas: " + response.getSkorPrioritas());
-        }
-        
-        // Fill in missing fields if any
-        if (response.getRekomendasi() == null || response.getRekomendasi().isEmpty()) {
-            response.setRekomendasi("Follow up sesuai prioritas lead");
-        }
-        
-        return response;
+        return Map.of(
+            "type", "OBJECT",
+            "properties", properties,
+            "required", required,
+            "propertyOrdering", new ArrayList<>(properties.keySet())
+        );
     }
     
     /**
-     * Repair incomplete JSON from truncated response
+     * Re-analyze lead (for refresh scoring)
+     * Used by LeadScoringController
+     * Cache evicted on re-analyze, rules & fingerprint skipped: always a fresh Gemini call
+     * (the new score also replaces the stored fingerprint)
      */
-    private String repairIncompleteJson(String incompleteJson) {
-        // Remove any markdown
-        String cleaned = incompleteJson
-            .replace("```json", "")
-            .replace("```", "")
-            .trim();
-        
-        // Find JSON start
-        int jsonStart = cleaned.indexOf("{");
-        if (jsonStart >= 0) {
-            cleaned = cleaned.substring(jsonStart);
-        }
-        
-        // Check if it ends with closing brace
-        if (!cleaned.endsWith("}")) {
-            // Try to close incomplete field
-            if (cleaned.contains("\"rekomendasi")) {
-                // rekomendasi field is incomplete
-                int lastColon = cleaned.lastIndexOf(":");
-                if (lastColon > 0) {
-                    cleaned = cleaned.substring(0, lastColon + 1) + " \"Follow up sesuai prioritas\"\n}";
-                } else {
-                    cleaned = cleaned + "\": \"Follow up sesuai prioritas\"\n}";
-                }
-            } else {
-                // Just close the JSON
-                cleaned = cleaned + "\n}";
-            }
-        }
+    @CacheEvict(value = "leadScoring", key = "'analysis_' + #idRequest")
+    public LeadScoringResponse reAnalyzeLead(Integer idRequest) {
+        log.info("CACHE EVICTED: Re-analyzing lead {}", idRequest);
         
-        System.out.println("=== REPAIRED JSON ===");
-        System.out.println(cleaned);
-        System.out.println("=====================");
+        RequestLayanan request = requestLayananRepository.findById(idRequest)
+            .orElseThrow(() -> new RuntimeException("Request dengan ID " + idRequest + " tidak ditemukan"));
         
-        return cleaned;
+        return analyze(toScoringRequest(request), false);
     }
     
     /**
-     * Save analysis result to database & evict related caches
+     * Analyze newly submitted lead (used by LeadScoringEventConsumer)
+     * Skipped if an admin already analyzed it, null if request no longer exists
      */
     @CacheEvict(value = {"leadScoring", "leadStatistics"}, allEntries = true)
-    private void saveAnalysisResultAndEvictCache(Integer idRequest, LeadScoringResponse result) {
-        RequestLayanan request = requestLayananRepository.findById(idRequest)
-            .orElseThrow(() -> new RuntimeException("Request tidak ditemukan"));
-        
-        request.setSkorPrioritas(result.getSkorPrioritas());
-        request.setKategoriLead(result.getKategori());
-        request.setAlasanSkor(result.getAlasan());
-        request.setTglAnalisaAi(new Date());
-        request.setAiAnalyzed(true);
-        
-        requestLayananRepository.save(request);
+    public LeadScoringResponse analyzeNewLead(Integer idRequest) {
+        RequestLayanan request = requestLayananRepository.findById(idRequest).orElse(null);
+        if (request == null || Boolean.TRUE.equals(request.getAiAnalyzed())) {
+            return null;
+        }
         
-        System.out.println("=== CACHE EVICTED: leadScoring & leadStatistics after saving analysis ===");
+        return analyzeLead(toScoringRequest(request));
     }
     
     /**
-     * Re-analyze lead (for refresh scoring)
-     * Used by LeadScoringController
-     * Cache evicted on re-analyze
+     * Re-analyze multiple leads in one Gemini call (for batch scoring)
+     * Unknown ids get ERROR result, ids missing from the map were not sent (Gemini unavailable)
      */
-    @CacheEvict(value = "leadScoring", key = "'analysis_' + #idRequest")
-    public LeadScoringResponse reAnalyzeLead(Integer idRequest) {
-        System.out.println("=== CACHE EVICTED: Re-analyzing lead " + idRequest + " ===");
+    @CacheEvict(value = "leadScoring", allEntries = true)
+    public Map<Integer, LeadScoringResponse> reAnalyzeLeads(List<Integer> idRequests) {
+        List<LeadScoringRequest> scoringRequests = new ArrayList<>();
+        for (RequestLayanan request : requestLayananRepository.findAllById(idRequests)) {
+            scoringRequests.add(toScoringRequest(request));
+        }
         
-        RequestLayanan request = requestLayananRepository.findById(idRequest)
-            .orElseThrow(() -> new RuntimeException("Request dengan ID " + idRequest + " tidak ditemukan"));
+        Map<Integer, LeadScoringResponse> results = new LinkedHashMap<>();
+        if (!scoringRequests.isEmpty()) {
+            results.putAll(analyzeLeadsBatch(scoringRequests));
+        }
         
-        // Build LeadScoringRequest with all data
+        Set<Integer> found = scoringRequests.stream()
+            .map(LeadScoringRequest::getIdRequest)
+            .collect(Collectors.toSet());
+        for (Integer idRequest : idRequests) {
+            if (!found.contains(idRequest)) {
+                results.put(idRequest, errorResponse("Request dengan ID " + idRequest + " tidak ditemukan"));
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Build LeadScoringRequest with all data
+     */
+    private LeadScoringRequest toScoringRequest(RequestLayanan request) {
         LeadScoringRequest scoringRequest = new LeadScoringRequest();
-        scoringRequest.setIdRequest(idRequest);
+        scoringRequest.setIdRequest(request.getIdRequest());
         scoringRequest.setNamaKlien(request.getKlien().getNamaKlien());
         scoringRequest.setPerusahaan(request.getPerusahaan());
         scoringRequest.setLayanan(request.getLayanan().getNamaLayanan());
@@ -398,7 +523,6 @@ public class GeminiService {
         scoringRequest.setWaktuImplementasi(request.getWaktuImplementasi());
         scoringRequest.setEmailKlien(request.getKlien().getEmailKlien());
         scoringRequest.setNoTelp(request.getKlien().getNoTelp());
-        
-        return analyzeLead(scoringRequest);
+        return scoringRequest;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,207 @@
+package com.PPPL.backend.service.lead;
+
+import com.PPPL.backend.handler.GeminiUnavailableException;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Priority gate in front of the Gemini quota: callers wait in their lane and are
+ * admitted one at a time to take a quota token, lanes dequeued by smooth weighted
+ * round-robin so an interactive re-analyze never waits behind a whole bulk run.
+ * Nobody holds the turn while the quota refills.
+ * Lane is taken from the calling thread (see withLane), default INTERACTIVE.
+ */
+@Component
+@Slf4j
+public class GeminiWorkScheduler {
+
+    public enum Lane { INTERACTIVE, NEW_SUBMISSION, BACKGROUND }
+
+    private static final ThreadLocal<Lane> CURRENT_LANE = new ThreadLocal<>();
+
+    private static class Ticket {
+        boolean granted;
+    }
+
+    private final Object lock = new Object();
+    private final Map<Lane, ArrayDeque<Ticket>> queues = new EnumMap<>(Lane.class);
+    private final Map<Lane, Integer> weights = new EnumMap<>(Lane.class);
+    private final Map<Lane, Integer> currentWeights = new EnumMap<>(Lane.class);
+    private final Map<Lane, Long> maxWaitMillis = new EnumMap<>(Lane.class);
+    private boolean admitting = false;
+    private long notBefore = 0; // earliest time the quota has a token again
+
+    private final GeminiMetrics geminiMetrics;
+
+    public GeminiWorkScheduler(
+            GeminiMetrics geminiMetrics,
+            @Value("${google.gemini.scheduler.weight.interactive:6}") int interactiveWeight,
+            @Value("${google.gemini.scheduler.weight.new-submission:3}") int newSubmissionWeight,
+            @Value("${google.gemini.scheduler.weight.background:1}") int backgroundWeight,
+            @Value("${google.gemini.scheduler.max-wait-ms.interactive:10000}") long interactiveMaxWait,
+            @Value("${google.gemini.scheduler.max-wait-ms.new-submission:60000}") long newSubmissionMaxWait,
+            @Value("${google.gemini.scheduler.max-wait-ms.background:120000}") long backgroundMaxWait) {
+        this.geminiMetrics = geminiMetrics;
+
+        weights.put(Lane.INTERACTIVE, interactiveWeight);
+        weights.put(Lane.NEW_SUBMISSION, newSubmissionWeight);
+        weights.put(Lane.BACKGROUND, backgroundWeight);
+        maxWaitMillis.put(Lane.INTERACTIVE, interactiveMaxWait);
+        maxWaitMillis.put(Lane.NEW_SUBMISSION, newSubmissionMaxWait);
+        maxWaitMillis.put(Lane.BACKGROUND, backgroundMaxWait);
+
+        for (Lane lane : Lane.values()) {
+            ArrayDeque<Ticket> queue = new ArrayDeque<>();
+            queues.put(lane, queue);
+            currentWeights.put(lane, 0);
+            geminiMetrics.registerLaneDepth(lane.name(), queue, ArrayDeque::size);
+        }
+    }
+
+    /**
+     * Run work with all Gemini calls inside it scheduled in the given lane
+     */
+    public static <T> T withLane(Lane lane, Supplier<T> work) {
+        Lane previous = CURRENT_LANE.get();
+        CURRENT_LANE.set(lane);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT_LANE.remove();
+            } else {
+                CURRENT_LANE.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Wait for this thread's lane turn, then take a quota token with tryTakeToken
+     * (0 = taken, otherwise millis until the next token). If no token is available the
+     * turn is released and the ticket re-queued at the head of its lane, so while the
+     * quota refills the next turn goes by weight again (interactive first).
+     */
+    public void admit(LongSupplier tryTakeToken) {
+        Lane lane = CURRENT_LANE.get() != null ? CURRENT_LANE.get() : Lane.INTERACTIVE;
+        long start = System.currentTimeMillis();
+        long deadline = start + maxWaitMillis.get(lane);
+
+        Ticket ticket = new Ticket();
+        synchronized (lock) {
+            queues.get(lane).addLast(ticket);
+        }
+
+        while (true) {
+            waitForTurn(ticket, lane, deadline);
+
+            long waitMillis;
+            try {
+                waitMillis = tryTakeToken.getAsLong();
+            } catch (RuntimeException e) {
+                releaseTurn();
+                throw e;
+            }
+
+            long now = System.currentTimeMillis();
+            if (waitMillis <= 0) {
+                releaseTurn();
+                geminiMetrics.recordSchedulerWait(lane.name(), now - start);
+                return;
+            }
+            if (now + waitMillis > deadline) {
+                releaseTurn();
+                throw new GeminiUnavailableException(
+                    "Kuota Gemini habis, coba lagi dalam " + Math.max(1, waitMillis / 1000) + " detik");
+            }
+
+            synchronized (lock) {
+                // Park until the next token is due, keep this ticket first in its lane
+                notBefore = Math.max(notBefore, now + waitMillis);
+                ticket.granted = false;
+                queues.get(lane).addFirst(ticket);
+                admitting = false;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    // Private Helper Methods
+
+    private void waitForTurn(Ticket ticket, Lane lane, long deadline) {
+        synchronized (lock) {
+            while (!ticket.granted) {
+                long now = System.currentTimeMillis();
+                if (!admitting && now >= notBefore) {
+                    dispatchNext();
+                    if (ticket.granted) {
+                        return;
+                    }
+                }
+
+                long remaining = deadline - now;
+                if (remaining <= 0) {
+                    queues.get(lane).remove(ticket);
+                    throw new GeminiUnavailableException("Antrian Gemini penuh (" + lane + "), coba lagi nanti");
+                }
+                long sleep = notBefore > now ? Math.min(remaining, notBefore - now) : remaining;
+                try {
+                    lock.wait(Math.max(1, sleep));
+                } catch (InterruptedException e) {
+                    if (ticket.granted) {
+                        // Turn already handed over, pass it on
+                        admitting = false;
+                        lock.notifyAll();
+                    } else {
+                        queues.get(lane).remove(ticket);
+                    }
+                    Thread.currentThread().interrupt();
+                    throw new GeminiUnavailableException("Menunggu antrian Gemini dibatalkan");
+                }
+            }
+        }
+    }
+
+    private void releaseTurn() {
+        synchronized (lock) {
+            admitting = false;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Smooth weighted round-robin over non-empty lanes (caller holds lock)
+     */
+    private void dispatchNext() {
+        Lane selected = null;
+        int totalWeight = 0;
+
+        for (Lane lane : Lane.values()) {
+            if (queues.get(lane).isEmpty()) {
+                continue;
+            }
+            int weight = weights.get(lane);
+            totalWeight += weight;
+            currentWeights.put(lane, currentWeights.get(lane) + weight);
+            if (selected == null || currentWeights.get(lane) > currentWeights.get(selected)) {
+                selected = lane;
+            }
+        }
+
+        if (selected == null) {
+            return;
+        }
+
+        currentWeights.put(selected, currentWeights.get(selected) - totalWeight);
+        queues.get(selected).pollFirst().granted = true;
+        admitting = true;
+        lock.notifyAll();
+    }
+}
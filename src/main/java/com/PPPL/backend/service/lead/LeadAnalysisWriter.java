@@ -0,0 +1,54 @@
+package com.PPPL.backend.service.lead;
+
+import com.PPPL.backend.data.lead.LeadScoringResponse;
+import com.PPPL.backend.model.layanan.RequestLayanan;
+import com.PPPL.backend.repository.layanan.RequestLayananRepository;
+import com.PPPL.backend.service.layanan.RequestMonthlyRollupService;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+
+/**
+ * Persists a lead score: request update & rollup delta commit together
+ * (a rollup rebuild can never run between them)
+ */
+@Service
+@Slf4j
+public class LeadAnalysisWriter {
+
+    private final RequestLayananRepository requestLayananRepository;
+    private final RequestMonthlyRollupService rollupService;
+
+    public LeadAnalysisWriter(
+            RequestLayananRepository requestLayananRepository,
+            RequestMonthlyRollupService rollupService) {
+        this.requestLayananRepository = requestLayananRepository;
+        this.rollupService = rollupService;
+    }
+
+    /**
+     * Save analysis result to database & evict related caches
+     */
+    @Transactional
+    @CacheEvict(value = {"leadScoring", "leadStatistics"}, allEntries = true)
+    public void save(Integer idRequest, LeadScoringResponse result) {
+        RequestLayanan request = requestLayananRepository.findById(idRequest)
+            .orElseThrow(() -> new RuntimeException("Request tidak ditemukan"));
+
+        String oldSkor = request.getSkorPrioritas();
+        request.setSkorPrioritas(result.getSkorPrioritas());
+        request.setKategoriLead(result.getKategori());
+        request.setAlasanSkor(result.getAlasan());
+        request.setTglAnalisaAi(new Date());
+        request.setAiAnalyzed(true);
+
+        requestLayananRepository.save(request);
+        rollupService.recordScoreChange(request, oldSkor);
+
+        log.debug("CACHE EVICTED: leadScoring & leadStatistics after saving analysis of lead {}", idRequest);
+    }
+}
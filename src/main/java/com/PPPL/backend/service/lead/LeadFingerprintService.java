@@ -0,0 +1,119 @@
+package com.PPPL.backend.service.lead;
+
+import com.PPPL.backend.data.lead.LeadScoringRequest;
+import com.PPPL.backend.data.lead.LeadScoringResponse;
+import com.PPPL.backend.model.lead.LeadScoreFingerprint;
+import com.PPPL.backend.repository.lead.LeadScoreFingerprintRepository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+
+@Service
+@Slf4j
+public class LeadFingerprintService {
+
+    private final LeadScoreFingerprintRepository fingerprintRepository;
+
+    @Value("${lead-scoring.fingerprint.ttl-days:30}")
+    private int ttlDays;
+
+    public LeadFingerprintService(LeadScoreFingerprintRepository fingerprintRepository) {
+        this.fingerprintRepository = fingerprintRepository;
+    }
+
+    /**
+     * SHA-256 of normalized layanan, budget, timeline, email domain & pesan
+     */
+    public String fingerprint(LeadScoringRequest request) {
+        String canonical = String.join("\u001F",
+            normalize(request.getLayanan()),
+            normalize(request.getAnggaran()),
+            normalize(request.getWaktuImplementasi()),
+            emailDomain(request.getEmailKlien()),
+            normalize(request.getPesan())
+        );
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 tidak tersedia", e);
+        }
+    }
+
+    /**
+     * Stored score for identical input (within TTL)
+     */
+    public Optional<LeadScoringResponse> find(String fingerprint) {
+        Date validAfter = new Date(System.currentTimeMillis() - ttlDays * 24L * 60 * 60 * 1000);
+
+        return fingerprintRepository.findByFingerprintAndCreatedAtAfter(fingerprint, validAfter)
+            .map(stored -> {
+                fingerprintRepository.recordHit(fingerprint, new Date());
+                log.info("Lead score fingerprint hit: {}", fingerprint);
+
+                return new LeadScoringResponse(
+                    stored.getSkorPrioritas(),
+                    stored.getKategoriLead(),
+                    stored.getAlasanSkor(),
+                    stored.getConfidence(),
+                    stored.getRekomendasi()
+                );
+            });
+    }
+
+    /**
+     * Store valid score (ERROR results are never stored)
+     */
+    public void store(String fingerprint, LeadScoringResponse result) {
+        if (result == null || "ERROR".equals(result.getSkorPrioritas())) {
+            return;
+        }
+
+        try {
+            LeadScoreFingerprint entry = new LeadScoreFingerprint();
+            entry.setFingerprint(fingerprint);
+            entry.setSkorPrioritas(result.getSkorPrioritas());
+            entry.setKategoriLead(result.getKategori());
+            entry.setAlasanSkor(result.getAlasan());
+            entry.setConfidence(result.getConfidence());
+            entry.setRekomendasi(result.getRekomendasi());
+            entry.setHitCount(0);
+            entry.setCreatedAt(new Date());
+            fingerprintRepository.save(entry);
+        } catch (Exception e) {
+            log.error("Failed to store lead score fingerprint {}: {}", fingerprint, e.getMessage());
+        }
+    }
+
+    // Private Helper Methods
+
+    /**
+     * Lowercase, trim, collapse whitespace
+     */
+    private String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Domain part of email (lowercase)
+     */
+    private String emailDomain(String email) {
+        if (email == null || !email.contains("@")) {
+            return "";
+        }
+        return normalize(email.substring(email.lastIndexOf('@') + 1));
+    }
+}
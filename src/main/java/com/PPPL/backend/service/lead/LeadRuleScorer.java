@@ -0,0 +1,242 @@
+package com.PPPL.backend.service.lead;
+
+import com.PPPL.backend.data.lead.LeadScoringRequest;
+import com.PPPL.backend.data.lead.LeadScoringResponse;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local pre-scorer with the same HOT/WARM/COLD criteria as the Gemini prompt.
+ * Only leads where budget, timeline & email domain all agree are scored here,
+ * everything else is left for Gemini.
+ */
+@Component
+@Slf4j
+public class LeadRuleScorer {
+
+    private static final Pattern NUMBER_WITH_UNIT = Pattern.compile("(\\d+(?:\\.\\d+)?)\\s*([a-z]+)?");
+    // Whole words only: "terbatas" must not read as "atas"
+    private static final Pattern UPPER_BOUND = Pattern.compile("<|\\bkurang\\b|\\b(di ?)?bawah\\b|\\bmaks|\\bmax");
+    private static final Pattern LOWER_BOUND = Pattern.compile(">|\\blebih\\b|\\b(di ?)?atas\\b|\\bmin(imal|imum)?\\b");
+
+    private static final Set<String> PERSONAL_EMAIL_DOMAINS = Set.of(
+        "gmail.com", "googlemail.com", "yahoo.com", "yahoo.co.id", "ymail.com",
+        "hotmail.com", "outlook.com", "live.com", "icloud.com", "me.com",
+        "aol.com", "proton.me", "protonmail.com", "mail.com", "gmx.com"
+    );
+
+    private static final Set<String> URGENT_WORDS = Set.of(
+        "urgent", "segera", "asap", "secepatnya", "mendesak", "cepat"
+    );
+
+    private static final Set<String> FLEXIBLE_WORDS = Set.of(
+        "fleksibel", "flexible", "santai", "tidak buru", "belum tahu", "tidak tahu", "belum pasti"
+    );
+
+    private static final Set<String> UNKNOWN_BUDGET_WORDS = Set.of(
+        "tidak tahu", "belum tahu", "belum pasti", "belum ada", "n/a"
+    );
+
+    @Value("${lead-scoring.rules.enabled:true}")
+    private boolean enabled;
+
+    private enum Tier { HOT, WARM, COLD }
+
+    private record Range(double min, double max, boolean upperBound, boolean lowerBound) { }
+
+    /**
+     * Score lead locally, empty if the lead is ambiguous (needs Gemini)
+     */
+    public Optional<LeadScoringResponse> score(LeadScoringRequest request) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        Tier budget = budgetTier(request.getAnggaran());
+        Tier timeline = timelineTier(request.getWaktuImplementasi());
+        Boolean corporate = isCorporateEmail(request.getEmailKlien());
+
+        if (budget == null || budget != timeline || corporate == null) {
+            return Optional.empty();
+        }
+
+        LeadScoringResponse result = new LeadScoringResponse();
+        // Kategori = tipe bisnis klien (seperti prompt Gemini), tidak bisa ditebak dari rule
+        result.setKategori("Lainnya");
+
+        switch (budget) {
+            case HOT:
+                if (!corporate) return Optional.empty();
+                result.setSkorPrioritas("HOT");
+                result.setConfidence(90);
+                result.setAlasan("Budget >50jt, timeline <1 bulan, email corporate");
+                result.setRekomendasi("Hubungi klien dalam 24 jam dan jadwalkan meeting kebutuhan");
+                break;
+            case WARM:
+                result.setSkorPrioritas("WARM");
+                result.setConfidence(80);
+                result.setAlasan("Budget 20-50jt, timeline 1-3 bulan, email " + (corporate ? "corporate" : "personal"));
+                result.setRekomendasi("Follow up dalam 2-3 hari dengan proposal awal");
+                break;
+            default:
+                if (corporate) return Optional.empty();
+                result.setSkorPrioritas("COLD");
+                result.setConfidence(85);
+                result.setAlasan("Budget <20jt/tidak tahu, timeline fleksibel, email personal");
+                result.setRekomendasi("Kirim informasi layanan dan masukkan ke nurturing list");
+                break;
+        }
+
+        log.info("Lead {} scored locally as {}", request.getIdRequest(), result.getSkorPrioritas());
+        return Optional.of(result);
+    }
+
+    // Private Helper Methods
+
+    /**
+     * Budget in juta: HOT >50, WARM 20-50, COLD <20 or unknown
+     */
+    private Tier budgetTier(String anggaran) {
+        String text = normalize(anggaran);
+        if (text.isEmpty() || text.equals("-") || UNKNOWN_BUDGET_WORDS.stream().anyMatch(text::contains)) {
+            return Tier.COLD;
+        }
+
+        // Remove currency & thousand separators: "rp 50.000.000" -> "50000000"
+        text = text.replace("rp", " ")
+            .replaceAll("(?<=\\d)\\.(?=\\d{3}(\\D|$))", "")
+            .replace(',', '.');
+
+        Range range = parseRange(text, this::budgetMultiplier, true);
+        if (range == null) {
+            return null;
+        }
+
+        if (range.max() < 20 || (range.upperBound() && range.max() <= 20)) return Tier.COLD;
+        if (range.min() > 50 || (range.lowerBound() && range.min() >= 50)) return Tier.HOT;
+        if (range.min() >= 20 && range.max() <= 50) return Tier.WARM;
+        return null;
+    }
+
+    /**
+     * Timeline in days: HOT <30 or urgent, WARM 30-90, COLD >90 or flexible
+     */
+    private Tier timelineTier(String waktuImplementasi) {
+        String text = normalize(waktuImplementasi);
+        if (text.isEmpty()) {
+            return null;
+        }
+        if (URGENT_WORDS.stream().anyMatch(text::contains)) return Tier.HOT;
+        if (FLEXIBLE_WORDS.stream().anyMatch(text::contains)) return Tier.COLD;
+
+        Range range = parseRange(text.replace(',', '.'), this::timelineMultiplier, false);
+        if (range == null) {
+            return null;
+        }
+
+        if (range.max() < 30 || (range.upperBound() && range.max() <= 30)) return Tier.HOT;
+        if (range.min() > 90 || (range.lowerBound() && range.min() >= 90)) return Tier.COLD;
+        if (range.min() >= 30 && range.max() <= 90) return Tier.WARM;
+        return null;
+    }
+
+    /**
+     * true = corporate, false = personal, null = unknown
+     */
+    private Boolean isCorporateEmail(String email) {
+        String text = normalize(email);
+        int at = text.lastIndexOf('@');
+        if (at < 0 || at == text.length() - 1) {
+            return null;
+        }
+        return !PERSONAL_EMAIL_DOMAINS.contains(text.substring(at + 1));
+    }
+
+    /**
+     * Parse "20-50 juta", "< 1 bulan", "lebih dari 3 bulan" into a range.
+     * Numbers without unit inherit the unit of the next number ("1-3 bulan").
+     */
+    private Range parseRange(String text, Function<String, Double> multiplierOf,
+                             boolean rawRupiahFallback) {
+        List<Double> values = new ArrayList<>();
+        List<Double> multipliers = new ArrayList<>();
+
+        Matcher matcher = NUMBER_WITH_UNIT.matcher(text);
+        while (matcher.find()) {
+            values.add(Double.parseDouble(matcher.group(1)));
+            multipliers.add(matcher.group(2) != null ? multiplierOf.apply(matcher.group(2)) : null);
+        }
+        if (values.isEmpty()) {
+            return null;
+        }
+
+        double min = Double.MAX_VALUE;
+        double max = 0;
+        Double inherited = null;
+        for (int i = values.size() - 1; i >= 0; i--) {
+            Double multiplier = multipliers.get(i) != null ? multipliers.get(i) : inherited;
+            double value = values.get(i);
+
+            if (multiplier == null) {
+                // "50000000" -> rupiah
+                if (!rawRupiahFallback || value < 1_000_000) {
+                    return null;
+                }
+                multiplier = 1.0 / 1_000_000;
+            }
+            inherited = multiplier;
+
+            min = Math.min(min, value * multiplier);
+            max = Math.max(max, value * multiplier);
+        }
+
+        boolean upperBound = UPPER_BOUND.matcher(text).find();
+        boolean lowerBound = LOWER_BOUND.matcher(text).find();
+
+        if (values.size() == 1 && upperBound) {
+            return new Range(0, max, true, false);
+        }
+        if (values.size() == 1 && lowerBound) {
+            return new Range(min, Double.MAX_VALUE, false, true);
+        }
+        return new Range(min, max, false, false);
+    }
+
+    /**
+     * Unit to juta, a bare "m" (million or miliar) is ambiguous and left to Gemini
+     */
+    private Double budgetMultiplier(String unit) {
+        if (unit.startsWith("jt") || unit.startsWith("juta") || unit.startsWith("million")
+                || unit.equals("mio") || unit.equals("mn")) return 1.0;
+        if (unit.startsWith("miliar") || unit.startsWith("milyar") || unit.startsWith("billion")
+                || unit.equals("b") || unit.equals("bn")) return 1000.0;
+        if (unit.startsWith("rb") || unit.startsWith("ribu") || unit.equals("k")) return 0.001;
+        return null;
+    }
+
+    /**
+     * Unit to days
+     */
+    private Double timelineMultiplier(String unit) {
+        if (unit.startsWith("hari") || unit.startsWith("day")) return 1.0;
+        if (unit.startsWith("minggu") || unit.startsWith("pekan") || unit.startsWith("week")) return 7.0;
+        if (unit.startsWith("bulan") || unit.startsWith("bln") || unit.startsWith("month")) return 30.0;
+        if (unit.startsWith("tahun") || unit.startsWith("thn") || unit.startsWith("year")) return 365.0;
+        return null;
+    }
+
+    private String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,116 @@
+package com.PPPL.backend.service.lead;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Redis single-flight locks so a lead is never sent to Gemini twice at once:
+ * one batch run at a time (any instance), and a per-lead claim shared by batch
+ * chunks and the RabbitMQ new-lead consumer. Fails open when Redis is down.
+ */
+@Component
+@Slf4j
+public class LeadScoringLock {
+
+    private static final String BATCH_KEY = "lead_scoring:batch:lock";
+    private static final String LEAD_KEY_PREFIX = "lead_scoring:lead:";
+
+    /**
+     * Extend or delete the key only while it still belongs to the owner
+     */
+    private static final RedisScript<Long> REFRESH_SCRIPT = new DefaultRedisScript<>("""
+        if redis.call('GET', KEYS[1]) == ARGV[1] then
+            return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+        end
+        return 0
+        """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+        if redis.call('GET', KEYS[1]) == ARGV[1] then
+            return redis.call('DEL', KEYS[1])
+        end
+        return 0
+        """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${lead-scoring.batch.lock-ttl-ms:600000}")
+    private long batchTtlMillis;
+
+    @Value("${lead-scoring.lead.claim-ttl-ms:300000}")
+    private long leadClaimTtlMillis;
+
+    public LeadScoringLock(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    /**
+     * Take the batch lock for owner, returns null if taken or the current owner if already running
+     */
+    public String tryLockBatch(String owner) {
+        try {
+            Boolean locked = stringRedisTemplate.opsForValue()
+                .setIfAbsent(BATCH_KEY, owner, Duration.ofMillis(batchTtlMillis));
+            if (Boolean.TRUE.equals(locked)) {
+                return null;
+            }
+            String current = stringRedisTemplate.opsForValue().get(BATCH_KEY);
+            return current != null ? current : tryLockBatch(owner);
+
+        } catch (Exception e) {
+            log.warn("Batch lock skipped, Redis error: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Keep the batch lock alive while pages are still being processed
+     */
+    public void refreshBatch(String owner) {
+        execute(REFRESH_SCRIPT, BATCH_KEY, owner, String.valueOf(batchTtlMillis));
+    }
+
+    public void releaseBatch(String owner) {
+        execute(RELEASE_SCRIPT, BATCH_KEY, owner);
+    }
+
+    /**
+     * Claim a lead for one Gemini call, false if another worker is scoring it
+     */
+    public boolean tryClaimLead(Integer idRequest) {
+        try {
+            Boolean claimed = stringRedisTemplate.opsForValue()
+                .setIfAbsent(LEAD_KEY_PREFIX + idRequest, "1", Duration.ofMillis(leadClaimTtlMillis));
+            return !Boolean.FALSE.equals(claimed);
+
+        } catch (Exception e) {
+            log.warn("Lead claim skipped, Redis error: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    public void releaseLead(Integer idRequest) {
+        try {
+            stringRedisTemplate.delete(LEAD_KEY_PREFIX + idRequest);
+        } catch (Exception e) {
+            log.warn("Lead claim release failed, Redis error: {}", e.getMessage());
+        }
+    }
+
+    // Private Helper Methods
+
+    private void execute(RedisScript<Long> script, String key, String... args) {
+        try {
+            stringRedisTemplate.execute(script, List.of(key), (Object[]) args);
+        } catch (Exception e) {
+            log.warn("Batch lock update failed, Redis error: {}", e.getMessage());
+        }
+    }
+}
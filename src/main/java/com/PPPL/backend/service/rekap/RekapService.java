@@ -1,46 +1,77 @@
 package com.PPPL.backend.service.rekap;
 
 import com.PPPL.backend.data.rekap.RekapDTO;
+import com.PPPL.backend.data.rekap.RekapListView;
+import com.PPPL.backend.data.rekap.RekapNoteDTO;
 import com.PPPL.backend.handler.ResourceNotFoundException;
 import com.PPPL.backend.model.admin.Klien;
 import com.PPPL.backend.model.enums.StatusRekap;
 import com.PPPL.backend.model.layanan.Layanan;
 import com.PPPL.backend.model.rekap.Rekap;
+import com.PPPL.backend.model.rekap.RekapNote;
 import com.PPPL.backend.repository.client.KlienRepository;
 import com.PPPL.backend.repository.layanan.LayananRepository;
+import com.PPPL.backend.repository.rekap.RekapNoteRepository;
 import com.PPPL.backend.repository.rekap.RekapRepository;
 import com.PPPL.backend.security.AuthUser;
+import com.PPPL.backend.util.ExportWriter;
+import com.PPPL.backend.util.PageResults;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Comparator;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class RekapService {
 
     private static final Logger log = LoggerFactory.getLogger(RekapService.class);
 
+    private static final List<ExportWriter.Column<RekapListView>> EXPORT_COLUMNS = List.of(
+        new ExportWriter.Column<>("idMeeting", RekapListView::getIdMeeting),
+        new ExportWriter.Column<>("tglMeeting", RekapListView::getTglMeeting),
+        new ExportWriter.Column<>("idKlien", RekapListView::getIdKlien),
+        new ExportWriter.Column<>("namaKlien", RekapListView::getNamaKlien),
+        new ExportWriter.Column<>("namaManager", RekapListView::getNamaManager),
+        new ExportWriter.Column<>("idLayanan", RekapListView::getIdLayanan),
+        new ExportWriter.Column<>("namaLayanan", RekapListView::getNamaLayanan),
+        new ExportWriter.Column<>("status", RekapListView::getStatus),
+        new ExportWriter.Column<>("hasil", RekapListView::getHasil),
+        new ExportWriter.Column<>("jumlahCatatan", RekapListView::getJumlahCatatan),
+        new ExportWriter.Column<>("catatanTerakhir", RekapListView::getCatatanTerakhir)
+    );
+
     @Autowired
     private RekapRepository rekapRepository;
 
+    @Autowired
+    private RekapNoteRepository rekapNoteRepository;
+
     @Autowired
     private KlienRepository klienRepository;
 
     @Autowired
     private LayananRepository layananRepository;
 
-    public List<RekapDTO> getAllRekap() {
-        return rekapRepository.findAll()
-            .stream()
-            .map(this::convertToDTO)
-            .sorted(Comparator.comparing(RekapDTO::getTglMeeting).reversed())
-            .collect(Collectors.toList());
+    /**
+     * List rekap newest first, keyset paginated by cursor
+     */
+    public Map<String, Object> getAllRekap(String cursor, int size) {
+        return listRekap(null, null, cursor, size);
     }
 
     public RekapDTO getRekapById(Integer id) {
@@ -50,54 +81,35 @@ public class RekapService {
         return convertToDTO(rekap);
     }
 
-    public List<RekapDTO> searchRekap(String keyword, StatusRekap status) {
-        List<Rekap> rekap = rekapRepository.findAll();
-
+    /**
+     * Search rekap by klien / manager name & status, paginated in the database
+     */
+    public Map<String, Object> searchRekap(String keyword, StatusRekap status, int page, int size) {
+        String pattern = null;
         if (keyword != null && !keyword.trim().isEmpty()) {
-            String kw = keyword.trim().toLowerCase();
-            rekap = rekap.stream()
-                .filter(r -> {
-                    boolean matchKlien = r.getKlien().getNamaKlien().toLowerCase().contains(kw);
-                    boolean matchManager = false;
-                    if (r.getNamaManagerManual() != null && !r.getNamaManagerManual().isEmpty()) {
-                        matchManager = r.getNamaManagerManual().toLowerCase().contains(kw);
-                    } else if (r.getManager() != null) {
-                        matchManager = r.getManager().getNamaManager().toLowerCase().contains(kw);
-                    }
-                    return matchKlien || matchManager;
-                })
-                .collect(Collectors.toList());
+            pattern = "%" + escapeLike(keyword.trim()) + "%";
         }
 
-        if (status != null) {
-            rekap = rekap.stream()
-                .filter(r -> r.getStatus() == status)
-                .collect(Collectors.toList());
-        }
+        Pageable pageable = PageResults.pageable(page, size);
+        Page<RekapListView> rekapPage = rekapRepository.searchRekap(
+            pattern,
+            status != null ? status.name() : null,
+            pageable
+        );
 
-        return rekap.stream()
+        List<RekapDTO> rekap = rekapPage.getContent().stream()
             .map(this::convertToDTO)
-            .sorted(Comparator.comparing(RekapDTO::getTglMeeting).reversed())
             .collect(Collectors.toList());
+
+        return PageResults.toResponse("rekap", rekap, rekapPage);
     }
 
-    public List<RekapDTO> getRekapByKlien(Integer idKlien) {
-        return rekapRepository.findAll()
-            .stream()
-            .filter(r -> r.getKlien().getIdKlien().equals(idKlien))
-            .map(this::convertToDTO)
-            .sorted(Comparator.comparing(RekapDTO::getTglMeeting).reversed())
-            .collect(Collectors.toList());
+    public Map<String, Object> getRekapByKlien(Integer idKlien, String cursor, int size) {
+        return listRekap(idKlien, null, cursor, size);
     }
 
-    public List<RekapDTO> getRekapByManager(Integer idManager) {
-        return rekapRepository.findAll()
-            .stream()
-            .filter(r -> r.getManager() != null &&
-                r.getManager().getIdManager().equals(idManager))
-            .map(this::convertToDTO)
-            .sorted(Comparator.comparing(RekapDTO::getTglMeeting).reversed())
-            .collect(Collectors.toList());
+    public Map<String, Object> getRekapByManager(Integer idManager, String cursor, int size) {
+        return listRekap(null, idManager, cursor, size);
     }
 
     @Transactional
@@ -147,21 +159,24 @@ public class RekapService {
     }
 
     /**
-     * Update status rekap meeting
+     * Update status rekap meeting, catatan tambahan masuk ke rekap_note
      */
     @Transactional
     public Rekap updateStatusRekap(Integer idMeeting, StatusRekap status, String catatanTambahan) {
         Rekap rekap = rekapRepository.findById(idMeeting)
-            .orElseThrow(() -> new RuntimeException("Rekap meeting tidak ditemukan"));
+            .orElseThrow(() -> new ResourceNotFoundException("Rekap meeting tidak ditemukan"));
 
         rekap.setStatus(status);
+        Rekap saved = rekapRepository.save(rekap);
 
         if (catatanTambahan != null && !catatanTambahan.isEmpty()) {
-            String catatanLama = rekap.getCatatan() != null ? rekap.getCatatan() : "";
-            rekap.setCatatan(catatanLama + "\n" + catatanTambahan);
+            tambahCatatan(idMeeting, catatanTambahan, null);
+            // recordNote update langsung di DB, samakan ringkasan di entity yang dikembalikan
+            saved.setJumlahCatatan(saved.getJumlahCatatan() + 1);
+            saved.setCatatanTerakhir(catatanTambahan);
         }
 
-        return rekapRepository.save(rekap);
+        return saved;
     }
 
     /**
@@ -208,20 +223,140 @@ public class RekapService {
     }
 
     /**
-     * Add new note to rekap meeting's existing notes
+     * Append a note to rekap meeting (insert only, rekap row just gets count & latest note)
      */
     @Transactional
-    public Rekap tambahCatatan(Integer idMeeting, String catatan) {
-        Rekap rekap = rekapRepository.findById(idMeeting)
-            .orElseThrow(() -> new RuntimeException("Rekap meeting tidak ditemukan"));
+    public RekapNoteDTO tambahCatatan(Integer idMeeting, String catatan, String createdBy) {
+        if (rekapRepository.recordNote(idMeeting, catatan) == 0) {
+            throw new ResourceNotFoundException("Rekap meeting tidak ditemukan");
+        }
 
-        String catatanLama = rekap.getCatatan() != null ? rekap.getCatatan() : "";
-        rekap.setCatatan(catatanLama + "\n[" + new java.util.Date() + "] " + catatan);
+        RekapNote note = new RekapNote();
+        note.setRekap(rekapRepository.getReferenceById(idMeeting));
+        note.setIsi(catatan);
+        note.setCreatedBy(createdBy);
 
-        return rekapRepository.save(rekap);
+        RekapNote saved = rekapNoteRepository.save(note);
+        log.info("Rekap note added: idMeeting={}, idNote={}", idMeeting, saved.getIdNote());
+
+        return convertToDTO(saved, idMeeting);
+    }
+
+    /**
+     * Notes of a rekap meeting, newest first, paginated
+     */
+    public Map<String, Object> getCatatanRekap(Integer idMeeting, int page, int size) {
+        if (!rekapRepository.existsById(idMeeting)) {
+            throw new ResourceNotFoundException("Rekap dengan ID " + idMeeting + " tidak ditemukan");
+        }
+
+        Pageable pageable = PageResults.pageable(page, size);
+        Page<RekapNote> notePage = rekapNoteRepository.findByRekap_IdMeetingOrderByIdNoteDesc(idMeeting, pageable);
+
+        List<RekapNoteDTO> notes = notePage.getContent().stream()
+            .map(note -> convertToDTO(note, idMeeting))
+            .collect(Collectors.toList());
+
+        return PageResults.toResponse("notes", notes, notePage);
+    }
+
+    /**
+     * Stream rekap list as CSV / NDJSON straight from a database cursor
+     */
+    @Transactional(readOnly = true)
+    public long exportRekap(Integer idKlien, Integer idManager,
+                            ExportWriter.Format format, OutputStream out) throws IOException {
+        try (Stream<RekapListView> rows = rekapRepository.streamList(idKlien, idManager)) {
+            long count = ExportWriter.write(rows, EXPORT_COLUMNS, format, out);
+            log.info("Rekap exported: format={}, rows={}", format, count);
+            return count;
+        }
     }
 
     // Private helper methods
+
+    /**
+     * One fetch-joined projection query per page, cursor = "yyyy-MM-dd_idMeeting"
+     * ("_idMeeting" for rekap without tanggal meeting)
+     */
+    private Map<String, Object> listRekap(Integer idKlien, Integer idManager, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, PageResults.MAX_PAGE_SIZE));
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<RekapListView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = rekapRepository.findListFirstPage(idKlien, idManager, limit);
+        } else {
+            int separator = cursor.lastIndexOf('_');
+            if (separator < 0) {
+                throw new IllegalArgumentException("cursor tidak valid");
+            }
+            Integer afterId;
+            Date afterTgl;
+            try {
+                afterId = Integer.valueOf(cursor.substring(separator + 1));
+                afterTgl = separator == 0 ? null : java.sql.Date.valueOf(cursor.substring(0, separator));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("cursor tidak valid");
+            }
+            rows = afterTgl != null
+                ? rekapRepository.findListAfterDated(idKlien, idManager, afterTgl, afterId, limit)
+                : rekapRepository.findListAfterUndated(idKlien, idManager, afterId, limit);
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            RekapListView last = rows.get(rows.size() - 1);
+            String tgl = last.getTglMeeting() != null
+                ? new SimpleDateFormat("yyyy-MM-dd").format(last.getTglMeeting())
+                : "";
+            nextCursor = tgl + "_" + last.getIdMeeting();
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("rekap", rows.stream().map(this::convertToDTO).collect(Collectors.toList()));
+        response.put("nextCursor", nextCursor);
+        response.put("hasNext", hasNext);
+
+        return response;
+    }
+
+    private RekapDTO convertToDTO(RekapListView row) {
+        RekapDTO dto = new RekapDTO();
+        dto.setIdMeeting(row.getIdMeeting());
+        dto.setIdKlien(row.getIdKlien());
+        dto.setNamaKlien(row.getNamaKlien());
+
+        String namaManager = row.getNamaManager() != null ? row.getNamaManager() : "-";
+        dto.setNamaManager(namaManager);
+        dto.setNamaManagerManual(namaManager);
+
+        dto.setIdLayanan(row.getIdLayanan());
+        dto.setNamaLayanan(row.getNamaLayanan());
+        dto.setTglMeeting(row.getTglMeeting());
+        dto.setHasil(row.getHasil());
+        dto.setStatus(row.getStatus());
+        dto.setJumlahCatatan(row.getJumlahCatatan());
+        dto.setCatatanTerakhir(row.getCatatanTerakhir());
+
+        return dto;
+    }
+
+    /**
+     * Escape LIKE wildcards so keyword is matched literally
+     */
+    private String escapeLike(String keyword) {
+        return keyword
+            .replace("\\", "\\\\")
+            .replace("%", "\\%")
+            .replace("_", "\\_");
+    }
+
     private RekapDTO convertToDTO(Rekap rekap) {
         RekapDTO dto = new RekapDTO();
         dto.setIdMeeting(rekap.getIdMeeting());
@@ -245,7 +380,19 @@ public class RekapService {
         dto.setHasil(rekap.getHasil());
         dto.setStatus(rekap.getStatus());
         dto.setCatatan(rekap.getCatatan());
+        dto.setJumlahCatatan(rekap.getJumlahCatatan());
+        dto.setCatatanTerakhir(rekap.getCatatanTerakhir());
+
+        return dto;
+    }
 
+    private RekapNoteDTO convertToDTO(RekapNote note, Integer idMeeting) {
+        RekapNoteDTO dto = new RekapNoteDTO();
+        dto.setIdNote(note.getIdNote());
+        dto.setIdMeeting(idMeeting);
+        dto.setIsi(note.getIsi());
+        dto.setCreatedBy(note.getCreatedBy());
+        dto.setCreatedAt(note.getCreatedAt());
         return dto;
     }
 }
\ No newline at end of file
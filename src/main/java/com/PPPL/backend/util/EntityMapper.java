@@ -91,6 +91,8 @@ public class EntityMapper {
         dto.setHasil(rekap.getHasil());
         dto.setStatus(rekap.getStatus());
         dto.setCatatan(rekap.getCatatan());
+        dto.setJumlahCatatan(rekap.getJumlahCatatan());
+        dto.setCatatanTerakhir(rekap.getCatatanTerakhir());
         
         if (rekap.getKlien() != null) {
             dto.setIdKlien(rekap.getKlien().getIdKlien());
@@ -0,0 +1,180 @@
+package com.PPPL.backend.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes rows from a (database cursor backed) stream as CSV or NDJSON,
+ * one row at a time with periodic flush, so exports run in constant heap.
+ */
+public final class ExportWriter {
+
+    private static final int FLUSH_EVERY_ROWS = 500;
+    // Exports may stream for minutes, only these async tasks get the long timeout
+    private static final long DOWNLOAD_TIMEOUT_MILLIS = 600_000;
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format from(String value) {
+            if (value == null || value.isBlank()) {
+                return CSV;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Format export harus csv atau ndjson");
+            }
+        }
+    }
+
+    public record Column<T>(String name, Function<T, Object> value) { }
+
+    @FunctionalInterface
+    public interface Body {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private ExportWriter() {
+    }
+
+    /**
+     * Write all rows to out, returns number of rows written
+     */
+    public static <T> long write(Stream<T> rows, List<Column<T>> columns,
+                                 Format format, OutputStream out) throws IOException {
+        SimpleDateFormat timestampFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+
+        if (format == Format.CSV) {
+            writeCsvLine(writer, columns.stream().map(column -> toCsvCell(column.name(), timestampFormat)).toList());
+        }
+        writer.flush();
+
+        long count = 0;
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+
+            if (format == Format.CSV) {
+                writeCsvLine(writer, columns.stream()
+                    .map(column -> toCsvCell(column.value().apply(row), timestampFormat))
+                    .toList());
+            } else {
+                Map<String, Object> json = new LinkedHashMap<>();
+                for (Column<T> column : columns) {
+                    json.put(column.name(), toJsonValue(column.value().apply(row), timestampFormat));
+                }
+                writer.write(JSON.writeValueAsString(json));
+                writer.write('\n');
+            }
+
+            if (++count % FLUSH_EVERY_ROWS == 0) {
+                writer.flush();
+            }
+        }
+
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Stream body as attachment {fileName}.{csv|ndjson} on an MVC async thread with its own timeout
+     */
+    public static WebAsyncTask<Void> download(HttpServletResponse response, Format format,
+                                              String fileName, Body body) {
+        response.setContentType(format.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"" + fileName + "." + format.getExtension() + "\"");
+
+        return new WebAsyncTask<>(DOWNLOAD_TIMEOUT_MILLIS, () -> {
+            body.writeTo(response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+
+    // Private Helper Methods
+
+    private static void writeCsvLine(Writer writer, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(values.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * RFC 4180 quoting, text a spreadsheet would run as formula gets a ' prefix
+     */
+    private static String toCsvCell(Object value, SimpleDateFormat timestampFormat) {
+        Object converted = toJsonValue(value, timestampFormat);
+        if (converted == null) {
+            return "";
+        }
+
+        String text = converted.toString();
+        if (text.isEmpty()) {
+            return text;
+        }
+        if (value instanceof CharSequence && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    private static Object toJsonValue(Object value, SimpleDateFormat timestampFormat) {
+        if (value instanceof java.sql.Date date) {
+            return date.toString();
+        }
+        if (value instanceof Date date) {
+            return timestampFormat.format(date);
+        }
+        if (value instanceof Enum<?> enumValue) {
+            return enumValue.name();
+        }
+        return value;
+    }
+}
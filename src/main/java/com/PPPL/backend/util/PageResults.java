@@ -0,0 +1,62 @@
+package com.PPPL.backend.util;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Page request parsing & paged response map shared by admin list endpoints
+ */
+public final class PageResults {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private PageResults() {
+    }
+
+    /**
+     * Build pageable from page/size and "field" / "field,desc" sort (only whitelisted fields),
+     * default sort stays as tie-breaker so pages are stable
+     */
+    public static Pageable pageable(int page, int size, String sort,
+                                    Set<String> sortableFields, Sort defaultSort) {
+        Sort order = defaultSort;
+
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.split(",");
+            String field = parts[0].trim();
+            if (!sortableFields.contains(field)) {
+                throw new IllegalArgumentException("Sort harus salah satu dari " + sortableFields);
+            }
+            boolean desc = parts.length > 1 && "desc".equals(parts[1].trim().toLowerCase(Locale.ROOT));
+            order = Sort.by(desc ? Sort.Direction.DESC : Sort.Direction.ASC, field).and(defaultSort);
+        }
+
+        return PageRequest.of(Math.max(0, page), Math.max(1, Math.min(size, MAX_PAGE_SIZE)), order);
+    }
+
+    public static Pageable pageable(int page, int size) {
+        return PageRequest.of(Math.max(0, page), Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+    }
+
+    /**
+     * Paged response: {key: items, currentPage, totalPages, totalItems, hasNext, hasPrevious}
+     */
+    public static Map<String, Object> toResponse(String key, List<?> items, Page<?> page) {
+        Map<String, Object> response = new HashMap<>();
+        response.put(key, items);
+        response.put("currentPage", page.getNumber());
+        response.put("totalPages", page.getTotalPages());
+        response.put("totalItems", page.getTotalElements());
+        response.put("hasNext", page.hasNext());
+        response.put("hasPrevious", page.hasPrevious());
+        return response;
+    }
+}
@@ -0,0 +1,5 @@
+-- Partial index untuk keyset paging lead yang belum dianalisa (batch analysis)
+-- Predikat harus sama dengan query: ai_analyzed IS NOT TRUE
+CREATE INDEX idx_request_pending_lead
+    ON request_layanan (id_request)
+    WHERE ai_analyzed IS NOT TRUE;
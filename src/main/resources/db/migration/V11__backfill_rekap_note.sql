@@ -0,0 +1,19 @@
+-- ============ BACKFILL REKAP_NOTE ============
+-- Catatan lama di rekap.catatan dipindah jadi satu rekap_note per rekap
+INSERT INTO rekap_note (id_meeting, isi)
+SELECT id_meeting, catatan
+FROM rekap
+WHERE catatan IS NOT NULL AND TRIM(catatan) <> '';
+
+-- Ringkasan disamakan dengan isi rekap_note
+UPDATE rekap r
+SET jumlah_catatan = n.jumlah,
+    catatan_terakhir = n.isi_terakhir
+FROM (
+    SELECT id_meeting,
+           COUNT(*) AS jumlah,
+           (ARRAY_AGG(isi ORDER BY id_note DESC))[1] AS isi_terakhir
+    FROM rekap_note
+    GROUP BY id_meeting
+) n
+WHERE r.id_meeting = n.id_meeting;
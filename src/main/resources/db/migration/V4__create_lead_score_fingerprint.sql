@@ -0,0 +1,15 @@
+-- ============ LEAD_SCORE_FINGERPRINT TABLE ============
+-- Hasil lead scoring per fingerprint input (layanan, budget, timeline, domain email, pesan)
+CREATE TABLE lead_score_fingerprint (
+    fingerprint VARCHAR(64) PRIMARY KEY,
+    skor_prioritas VARCHAR(20) NOT NULL,
+    kategori_lead VARCHAR(50),
+    alasan_skor TEXT,
+    confidence INTEGER,
+    rekomendasi TEXT,
+    hit_count INTEGER DEFAULT 0 NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    last_used_at TIMESTAMP
+);
+
+CREATE INDEX idx_lead_fingerprint_created ON lead_score_fingerprint(created_at);
@@ -0,0 +1,31 @@
+-- ============ REQUEST_LAYANAN_MONTHLY_ROLLUP TABLE ============
+-- Jumlah request per bulan (tgl_request) per status & skor prioritas, diupdate incremental
+CREATE TABLE request_layanan_monthly_rollup (
+    month DATE PRIMARY KEY,
+    total BIGINT DEFAULT 0 NOT NULL,
+    hot BIGINT DEFAULT 0 NOT NULL,
+    warm BIGINT DEFAULT 0 NOT NULL,
+    cold BIGINT DEFAULT 0 NOT NULL,
+    unscored BIGINT DEFAULT 0 NOT NULL,
+    verified BIGINT DEFAULT 0 NOT NULL,
+    rejected BIGINT DEFAULT 0 NOT NULL,
+    pending BIGINT DEFAULT 0 NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
+
+-- Backfill dari data yang sudah ada
+INSERT INTO request_layanan_monthly_rollup
+    (month, total, hot, warm, cold, unscored, verified, rejected, pending, updated_at)
+SELECT CAST(date_trunc('month', r.tgl_request) AS DATE),
+       COUNT(*),
+       COUNT(*) FILTER (WHERE UPPER(r.skor_prioritas) = 'HOT'),
+       COUNT(*) FILTER (WHERE UPPER(r.skor_prioritas) = 'WARM'),
+       COUNT(*) FILTER (WHERE UPPER(r.skor_prioritas) = 'COLD'),
+       COUNT(*) FILTER (WHERE r.skor_prioritas IS NULL),
+       COUNT(*) FILTER (WHERE r.status = 'VERIFIKASI'),
+       COUNT(*) FILTER (WHERE r.status = 'DITOLAK'),
+       COUNT(*) FILTER (WHERE r.status = 'MENUNGGU_VERIFIKASI'),
+       CURRENT_TIMESTAMP
+FROM request_layanan r
+WHERE r.tgl_request IS NOT NULL
+GROUP BY date_trunc('month', r.tgl_request);
@@ -0,0 +1,4 @@
+-- Partial index untuk widget aktivitas AI terbaru (top-N by tgl_analisa_ai)
+CREATE INDEX idx_request_recent_ai_activity
+    ON request_layanan (tgl_analisa_ai DESC)
+    WHERE ai_analyzed = true AND tgl_analisa_ai IS NOT NULL;
@@ -0,0 +1,15 @@
+-- Trigram index untuk pencarian rekap (ILIKE '%keyword%' pada nama klien & manager)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_klien_nama_trgm
+    ON klien USING gin (nama_klien gin_trgm_ops);
+
+CREATE INDEX idx_rekap_nama_manager_manual_trgm
+    ON rekap USING gin (nama_manager_manual gin_trgm_ops);
+
+CREATE INDEX idx_manager_nama_trgm
+    ON manager USING gin (nama_manager gin_trgm_ops);
+
+-- Listing default: terbaru dulu
+CREATE INDEX idx_rekap_tgl_meeting_desc
+    ON rekap (tgl_meeting DESC NULLS LAST, id_meeting DESC);
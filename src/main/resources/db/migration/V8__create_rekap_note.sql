@@ -0,0 +1,16 @@
+-- ============ REKAP_NOTE TABLE ============
+-- Catatan tambahan rekap meeting (append-only, menggantikan append ke rekap.catatan)
+CREATE TABLE rekap_note (
+    id_note SERIAL PRIMARY KEY,
+    id_meeting INTEGER NOT NULL,
+    isi TEXT NOT NULL,
+    created_by VARCHAR(100),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    CONSTRAINT fk_rekap_note_rekap FOREIGN KEY (id_meeting) REFERENCES rekap(id_meeting) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_rekap_note_meeting ON rekap_note(id_meeting, id_note DESC);
+
+-- Ringkasan untuk list rekap (diupdate bersamaan dengan insert catatan)
+ALTER TABLE rekap ADD COLUMN jumlah_catatan INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE rekap ADD COLUMN catatan_terakhir TEXT;
@@ -0,0 +1,19 @@
+-- Trigram index untuk search list admin (ILIKE '%keyword%'), pg_trgm sudah di V7
+CREATE INDEX idx_klien_email_trgm
+    ON klien USING gin (email_klien gin_trgm_ops);
+
+CREATE INDEX idx_layanan_nama_trgm
+    ON layanan USING gin (nama_layanan gin_trgm_ops);
+
+CREATE INDEX idx_karyawan_nama_trgm
+    ON karyawan USING gin (nama_karyawan gin_trgm_ops);
+CREATE INDEX idx_karyawan_email_trgm
+    ON karyawan USING gin (email_karyawan gin_trgm_ops);
+CREATE INDEX idx_karyawan_jabatan_trgm
+    ON karyawan USING gin (jabatan_posisi gin_trgm_ops);
+
+CREATE INDEX idx_manager_email_trgm
+    ON manager USING gin (email_manager gin_trgm_ops);
+
+-- Filter divisi case-insensitive
+CREATE INDEX idx_manager_divisi_lower ON manager (lower(divisi));
@@ -0,0 +1,327 @@
+package com.PPPL.backend.service.lead;
+
+import com.PPPL.backend.handler.GeminiUnavailableException;
+import com.PPPL.backend.service.lead.GeminiCallGuard.CircuitState;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeminiCallGuardTest {
+
+    private static final long OPEN_DURATION = 60_000;
+
+    private GeminiCallGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        guard = new GeminiCallGuard();
+        ReflectionTestUtils.setField(guard, "failureThreshold", 3);
+        ReflectionTestUtils.setField(guard, "openDurationMillis", OPEN_DURATION);
+        ReflectionTestUtils.setField(guard, "limit", 4.0);
+        ReflectionTestUtils.setField(guard, "minLimit", 1);
+        ReflectionTestUtils.setField(guard, "maxLimit", 8);
+        ReflectionTestUtils.setField(guard, "acquireTimeoutMillis", 50L);
+        ReflectionTestUtils.setField(guard, "slowCallMillis", 10_000L);
+    }
+
+    // Circuit state transitions
+
+    @Test
+    void closedCircuitPassesResultThrough() {
+        assertEquals("ok", guard.execute(() -> "ok"));
+        assertEquals(CircuitState.CLOSED, guard.getState());
+        assertEquals(0, guard.getInFlight());
+    }
+
+    @Test
+    void opensAfterConsecutiveUpstreamFailures() {
+        failTimes(2);
+        assertEquals(CircuitState.CLOSED, guard.getState());
+
+        failTimes(1);
+        assertEquals(CircuitState.OPEN, guard.getState());
+        assertEquals(3, guard.getConsecutiveFailures());
+    }
+
+    @Test
+    void openCircuitFailsFastWithoutCalling() {
+        failTimes(3);
+        AtomicBoolean called = new AtomicBoolean();
+
+        assertThrows(GeminiUnavailableException.class, () -> guard.execute(() -> called.getAndSet(true)));
+        assertThrows(GeminiUnavailableException.class, guard::checkAvailable);
+        assertFalse(called.get());
+    }
+
+    @Test
+    void successResetsFailureCount() {
+        failTimes(2);
+        guard.execute(() -> "ok");
+        failTimes(2);
+
+        assertEquals(CircuitState.CLOSED, guard.getState());
+    }
+
+    @Test
+    void clientErrorsDoNotTripTheCircuit() {
+        for (int i = 0; i < 5; i++) {
+            assertThrows(HttpClientErrorException.class, () -> guard.execute(() -> {
+                throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+            }));
+        }
+
+        assertEquals(CircuitState.CLOSED, guard.getState());
+        assertEquals(0, guard.getConsecutiveFailures());
+    }
+
+    @Test
+    void tooManyRequestsCountsAsFailure() {
+        for (int i = 0; i < 3; i++) {
+            assertThrows(HttpClientErrorException.class, () -> guard.execute(() -> {
+                throw new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS);
+            }));
+        }
+
+        assertEquals(CircuitState.OPEN, guard.getState());
+    }
+
+    @Test
+    void halfOpenAfterOpenDurationAndClosesOnSuccessfulTrial() {
+        failTimes(3);
+        expireOpenWindow();
+
+        assertEquals(CircuitState.HALF_OPEN, guard.getState());
+        assertEquals("ok", guard.execute(() -> "ok"));
+        assertEquals(CircuitState.CLOSED, guard.getState());
+    }
+
+    @Test
+    void failedTrialReopensCircuit() {
+        failTimes(3);
+        expireOpenWindow();
+
+        failTimes(1);
+
+        assertEquals(CircuitState.OPEN, guard.getState());
+        assertThrows(GeminiUnavailableException.class, guard::checkAvailable);
+    }
+
+    @Test
+    void onlyOneTrialRunsWhileHalfOpen() throws Exception {
+        failTimes(3);
+        expireOpenWindow();
+        CountDownLatch trialStarted = new CountDownLatch(1);
+        CountDownLatch finishTrial = new CountDownLatch(1);
+
+        CompletableFuture<String> trial = CompletableFuture.supplyAsync(() -> guard.execute(() -> {
+            trialStarted.countDown();
+            await(finishTrial);
+            return "trial";
+        }));
+        assertTrue(trialStarted.await(5, TimeUnit.SECONDS));
+
+        GeminiUnavailableException e = assertThrows(GeminiUnavailableException.class,
+            () -> guard.execute(() -> "second"));
+        assertTrue(e.getMessage().contains("half-open"));
+
+        finishTrial.countDown();
+        assertEquals("trial", trial.get(5, TimeUnit.SECONDS));
+        assertEquals(CircuitState.CLOSED, guard.getState());
+    }
+
+    @Test
+    void errorInTrialDoesNotLeaveCircuitStuck() {
+        failTimes(3);
+        expireOpenWindow();
+
+        assertThrows(Error.class, () -> guard.execute(() -> {
+            throw new Error("boom");
+        }));
+
+        // Next caller becomes the trial instead of being rejected forever
+        assertEquals(CircuitState.HALF_OPEN, guard.getState());
+        assertEquals(0, guard.getInFlight());
+        assertEquals("ok", guard.execute(() -> "ok"));
+        assertEquals(CircuitState.CLOSED, guard.getState());
+    }
+
+    // AIMD limit
+
+    @Test
+    void failureHalvesLimitDownToMinimum() {
+        ReflectionTestUtils.setField(guard, "failureThreshold", 10);
+
+        failTimes(1);
+        assertEquals(2, guard.getLimit());
+
+        failTimes(1);
+        assertEquals(1, guard.getLimit());
+
+        failTimes(1);
+        assertEquals(1, guard.getLimit());
+    }
+
+    @Test
+    void slowCallHalvesLimit() {
+        ReflectionTestUtils.setField(guard, "slowCallMillis", 0L);
+
+        guard.execute(() -> {
+            sleep(5);
+            return "slow";
+        });
+
+        assertEquals(2, guard.getLimit());
+    }
+
+    @Test
+    void limitGrowsOnlyWhenSaturated() {
+        guard.execute(() -> "ok");
+        assertEquals(4, guard.getLimit());
+
+        // One call at a time saturates a limit of 1: +1/limit per success
+        ReflectionTestUtils.setField(guard, "limit", 1.0);
+        guard.execute(() -> "ok");
+        assertEquals(2, guard.getLimit());
+    }
+
+    @Test
+    void limitNeverExceedsMaximum() {
+        ReflectionTestUtils.setField(guard, "limit", 1.0);
+        ReflectionTestUtils.setField(guard, "maxLimit", 1);
+
+        guard.execute(() -> "ok");
+
+        assertEquals(1, guard.getLimit());
+    }
+
+    @Test
+    void callOverLimitIsRejectedAfterAcquireTimeout() throws Exception {
+        ReflectionTestUtils.setField(guard, "limit", 1.0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> guard.execute(() -> {
+            started.countDown();
+            await(finish);
+            return "first";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        GeminiUnavailableException e = assertThrows(GeminiUnavailableException.class,
+            () -> guard.execute(() -> "second"));
+        assertTrue(e.getMessage().contains("concurrency limit"));
+
+        finish.countDown();
+        assertEquals("first", running.get(5, TimeUnit.SECONDS));
+        assertEquals(0, guard.getInFlight());
+    }
+
+    // Scheduler-admitted calls
+
+    @Test
+    void openCircuitNeverWaitsInLaneOrTakesToken() {
+        failTimes(3);
+        AtomicInteger tokensTaken = new AtomicInteger();
+
+        assertThrows(GeminiUnavailableException.class, () -> guard.execute(
+            scheduler(), () -> {
+                tokensTaken.incrementAndGet();
+                return 0;
+            }, () -> "never"));
+
+        assertEquals(0, tokensTaken.get());
+    }
+
+    @Test
+    void tokenIsTakenWhilePermitHeld() {
+        AtomicInteger inFlightAtToken = new AtomicInteger(-1);
+
+        String result = guard.execute(scheduler(), () -> {
+            inFlightAtToken.set(guard.getInFlight());
+            return 0;
+        }, () -> "ok");
+
+        assertEquals("ok", result);
+        assertEquals(1, inFlightAtToken.get());
+        assertEquals(0, guard.getInFlight());
+    }
+
+    @Test
+    void permitIsReturnedWhileWaitingForToken() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = guard.execute(scheduler(), () -> attempts.incrementAndGet() == 1 ? 20 : 0, () -> {
+            assertEquals(1, guard.getInFlight());
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(2, attempts.get());
+        assertEquals(0, guard.getInFlight());
+    }
+
+    @Test
+    void trialPermitIsReturnedWhenNoTokenArrives() {
+        failTimes(3);
+        expireOpenWindow();
+
+        // Token is further away than the lane may wait: no call, trial must be free again
+        assertThrows(GeminiUnavailableException.class,
+            () -> guard.execute(scheduler(), () -> 60_000, () -> "never"));
+
+        assertEquals(0, guard.getInFlight());
+        assertEquals("ok", guard.execute(() -> "ok"));
+        assertEquals(CircuitState.CLOSED, guard.getState());
+    }
+
+    // Private Helper Methods
+
+    private void failTimes(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThrows(HttpServerErrorException.class, () -> guard.execute(() -> {
+                throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+            }));
+        }
+    }
+
+    private void expireOpenWindow() {
+        ReflectionTestUtils.setField(guard, "openedAt", System.currentTimeMillis() - OPEN_DURATION - 1);
+    }
+
+    private GeminiWorkScheduler scheduler() {
+        return new GeminiWorkScheduler(
+            new GeminiMetrics(new SimpleMeterRegistry(), guard), 6, 3, 1, 1_000, 1_000, 1_000);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
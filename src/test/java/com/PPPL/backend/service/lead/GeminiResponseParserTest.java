@@ -0,0 +1,264 @@
+package com.PPPL.backend.service.lead;
+
+import com.PPPL.backend.data.lead.LeadScoringResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeminiResponseParserTest {
+
+    private static final String HOT_LEAD =
+        "{\"skorPrioritas\":\"HOT\",\"kategori\":\"Enterprise\",\"alasan\":\"Budget besar\"," +
+        "\"confidence\":90,\"rekomendasi\":\"Hubungi hari ini\"}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SimpleMeterRegistry meterRegistry;
+    private GeminiResponseParser parser;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        parser = new GeminiResponseParser(new GeminiMetrics(meterRegistry, new GeminiCallGuard()));
+    }
+
+    // Single lead
+
+    @Test
+    void readsLeadFromFirstCandidateText() throws IOException {
+        LeadScoringResponse result = parser.parseLead(body(HOT_LEAD, "STOP"));
+
+        assertEquals("HOT", result.getSkorPrioritas());
+        assertEquals("Enterprise", result.getKategori());
+        assertEquals("Budget besar", result.getAlasan());
+        assertEquals(90, result.getConfidence());
+        assertEquals("Hubungi hari ini", result.getRekomendasi());
+        assertEquals(1.0, meterRegistry.get("gemini.finish.reason").tag("reason", "STOP").counter().count());
+    }
+
+    @Test
+    void textSplitAcrossPartsIsJoined() throws IOException {
+        String body = "{\"candidates\":[{\"content\":{\"parts\":[" +
+            "{\"text\":" + quote(HOT_LEAD.substring(0, 20)) + "}," +
+            "{\"text\":" + quote(HOT_LEAD.substring(20)) + "}]},\"finishReason\":\"STOP\"}]}";
+
+        assertEquals("HOT", parser.parseLead(body).getSkorPrioritas());
+    }
+
+    @Test
+    void unknownFieldsAndOtherCandidatesAreSkipped() throws IOException {
+        String body = "{\"modelVersion\":\"x\",\"promptFeedback\":{\"blockReason\":null,\"ratings\":[1,2]}," +
+            "\"candidates\":[" +
+            "{\"index\":0,\"safetyRatings\":[{\"category\":\"A\"}],\"content\":{\"role\":\"model\"," +
+            "\"parts\":[{\"thought\":true,\"text\":" + quote(HOT_LEAD) + "}]},\"finishReason\":\"STOP\"}," +
+            "{\"content\":{\"parts\":[{\"text\":\"{\\\"skorPrioritas\\\":\\\"COLD\\\"}\"}]}}]}";
+
+        assertEquals("HOT", parser.parseLead(body).getSkorPrioritas());
+    }
+
+    @Test
+    void usageMetadataIsRecorded() throws IOException {
+        String body = "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":" + quote(HOT_LEAD) + "}]}," +
+            "\"finishReason\":\"STOP\"}],\"usageMetadata\":{\"promptTokenCount\":120," +
+            "\"candidatesTokenCount\":40,\"totalTokenCount\":160,\"promptTokensDetails\":[{\"tokenCount\":120}]}}";
+
+        parser.parseLead(body);
+
+        assertEquals(120.0, meterRegistry.get("gemini.tokens").tag("type", "prompt").summary().totalAmount());
+        assertEquals(40.0, meterRegistry.get("gemini.tokens").tag("type", "output").summary().totalAmount());
+        assertEquals(160.0, meterRegistry.get("gemini.tokens").tag("type", "total").summary().totalAmount());
+    }
+
+    @Test
+    void rekomendasiArrayIsJoined() throws IOException {
+        String lead = "{\"skorPrioritas\":\"WARM\",\"rekomendasi\":[\"Kirim proposal\",\"Jadwalkan demo\"]}";
+
+        LeadScoringResponse result = parser.parseLead(body(lead, "STOP"));
+
+        assertEquals("Kirim proposal; Jadwalkan demo", result.getRekomendasi());
+        assertEquals(1.0, repairs("rekomendasi_array"));
+    }
+
+    @Test
+    void missingRekomendasiGetsDefault() throws IOException {
+        LeadScoringResponse result = parser.parseLead(body("{\"skorPrioritas\":\"COLD\"}", "STOP"));
+
+        assertEquals("Follow up sesuai prioritas lead", result.getRekomendasi());
+        assertEquals(1.0, repairs("rekomendasi_default"));
+    }
+
+    @Test
+    void invalidSkorIsRejected() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+            () -> parser.parseLead(body("{\"skorPrioritas\":\"MEDIUM\"}", "STOP")));
+
+        assertTrue(e.getMessage().contains("MEDIUM"));
+    }
+
+    @Test
+    void leadTextThatIsNotAnObjectIsRejected() {
+        assertThrows(RuntimeException.class, () -> parser.parseLead(body("[" + HOT_LEAD + "]", "STOP")));
+    }
+
+    // Truncated & empty responses
+
+    @Test
+    void maxTokensIsRejectedEvenWithText() {
+        String truncatedLead = HOT_LEAD.substring(0, HOT_LEAD.length() / 2);
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+            () -> parser.parseLead(body(truncatedLead, "MAX_TOKENS")));
+
+        assertTrue(e.getMessage().contains("MAX_TOKENS"));
+        assertEquals(1.0, meterRegistry.get("gemini.finish.reason").tag("reason", "MAX_TOKENS").counter().count());
+    }
+
+    @Test
+    void truncatedBodyFailsWithoutPartialResult() throws JsonProcessingException {
+        String body = body(HOT_LEAD, "STOP");
+        String truncated = body.substring(0, body.length() - 30);
+
+        assertThrows(IOException.class, () -> parser.parseLead(truncated));
+    }
+
+    @Test
+    void truncatedLeadTextFails() {
+        String truncatedLead = HOT_LEAD.substring(0, HOT_LEAD.indexOf("alasan"));
+
+        assertThrows(IOException.class, () -> parser.parseLead(body(truncatedLead, "STOP")));
+    }
+
+    @Test
+    void missingCandidatesIsRejected() {
+        RuntimeException e = assertThrows(RuntimeException.class,
+            () -> parser.parseLead("{\"promptFeedback\":{\"blockReason\":\"SAFETY\"}}"));
+
+        assertTrue(e.getMessage().contains("No candidates"));
+        assertEquals(1.0, meterRegistry.get("gemini.finish.reason").tag("reason", "NONE").counter().count());
+    }
+
+    @Test
+    void emptyTextIsRejected() {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> parser.parseLead(body("", "SAFETY")));
+
+        assertTrue(e.getMessage().contains("SAFETY"));
+    }
+
+    @Test
+    void bodyThatIsNotAnObjectIsRejected() {
+        assertThrows(RuntimeException.class, () -> parser.parseLead("[]"));
+    }
+
+    // Batch
+
+    @Test
+    void batchIsKeyedByIdRequest() throws IOException {
+        String leads = "[{\"idRequest\":1,\"skorPrioritas\":\"HOT\"},{\"idRequest\":2,\"skorPrioritas\":\"COLD\"}]";
+
+        Map<Integer, LeadScoringResponse> results = parser.parseLeadBatch(body(leads, "STOP"));
+
+        assertEquals(2, results.size());
+        assertEquals("HOT", results.get(1).getSkorPrioritas());
+        assertEquals("COLD", results.get(2).getSkorPrioritas());
+    }
+
+    @Test
+    void invalidBatchItemIsSkipped() throws IOException {
+        String leads = "[{\"idRequest\":1,\"skorPrioritas\":\"HOT\"}," +
+            "{\"idRequest\":2,\"skorPrioritas\":\"?\",\"extra\":{\"a\":[1,{\"b\":2}]}}," +
+            "{\"idRequest\":3,\"skorPrioritas\":\"WARM\"}]";
+
+        Map<Integer, LeadScoringResponse> results = parser.parseLeadBatch(body(leads, "STOP"));
+
+        assertEquals(2, results.size());
+        assertEquals("HOT", results.get(1).getSkorPrioritas());
+        assertEquals("WARM", results.get(3).getSkorPrioritas());
+        assertFalse(results.containsKey(2));
+        assertEquals(1.0, repairs("invalid_item"));
+    }
+
+    @Test
+    void itemFailingMidObjectIsSkippedToItsEnd() throws IOException {
+        // idRequest out of int range fails before the nested values are read
+        String leads = "[{\"idRequest\":99999999999,\"extra\":{\"a\":[1,{\"b\":{}}]},\"skorPrioritas\":\"HOT\"}," +
+            "{\"idRequest\":5,\"skorPrioritas\":\"COLD\"}]";
+
+        Map<Integer, LeadScoringResponse> results = parser.parseLeadBatch(body(leads, "STOP"));
+
+        assertEquals(1, results.size());
+        assertEquals("COLD", results.get(5).getSkorPrioritas());
+        assertEquals(1.0, repairs("invalid_item"));
+    }
+
+    @Test
+    void nestedValuesInRekomendasiArrayDoNotDerailTheBatch() throws IOException {
+        String leads = "[{\"idRequest\":1,\"rekomendasi\":[\"Telepon\",[\"x\"],{\"y\":1}],\"skorPrioritas\":\"HOT\"}," +
+            "{\"idRequest\":2,\"skorPrioritas\":\"WARM\"}]";
+
+        Map<Integer, LeadScoringResponse> results = parser.parseLeadBatch(body(leads, "STOP"));
+
+        assertEquals(2, results.size());
+        assertEquals("HOT", results.get(1).getSkorPrioritas());
+        assertEquals("Telepon", results.get(1).getRekomendasi());
+        assertEquals("WARM", results.get(2).getSkorPrioritas());
+    }
+
+    @Test
+    void batchItemWithoutNumericIdIsDropped() throws IOException {
+        String leads = "[{\"idRequest\":\"satu\",\"skorPrioritas\":\"HOT\"},{\"skorPrioritas\":\"COLD\"}," +
+            "{\"idRequest\":4,\"skorPrioritas\":\"WARM\"}]";
+
+        Map<Integer, LeadScoringResponse> results = parser.parseLeadBatch(body(leads, "STOP"));
+
+        assertEquals(1, results.size());
+        assertEquals("WARM", results.get(4).getSkorPrioritas());
+    }
+
+    @Test
+    void batchTextThatIsNotAnArrayIsRejected() {
+        assertThrows(RuntimeException.class, () -> parser.parseLeadBatch(body(HOT_LEAD, "STOP")));
+    }
+
+    @Test
+    void truncatedBatchFails() {
+        String leads = "[{\"idRequest\":1,\"skorPrioritas\":\"HOT\"},{\"idRequest\":2,\"skorPri";
+
+        assertThrows(IOException.class, () -> parser.parseLeadBatch(body(leads, "STOP")));
+    }
+
+    @Test
+    void batchCutByMaxTokensIsRejected() {
+        String leads = "[{\"idRequest\":1,\"skorPrioritas\":\"HOT\"},{\"idRequest\":2";
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+            () -> parser.parseLeadBatch(body(leads, "MAX_TOKENS")));
+
+        assertTrue(e.getMessage().contains("MAX_TOKENS"));
+    }
+
+    // Private Helper Methods
+
+    private String body(String text, String finishReason) throws JsonProcessingException {
+        return "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":" + quote(text) + "}],\"role\":\"model\"}," +
+            "\"finishReason\":\"" + finishReason + "\"}]}";
+    }
+
+    private String quote(String text) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(text);
+    }
+
+    private double repairs(String kind) {
+        return meterRegistry.get("gemini.parse.repairs").tag("kind", kind).counter().count();
+    }
+}
@@ -0,0 +1,257 @@
+package com.PPPL.backend.service.lead;
+
+import com.PPPL.backend.handler.GeminiUnavailableException;
+import com.PPPL.backend.service.lead.GeminiWorkScheduler.Lane;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeminiWorkSchedulerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pool = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    // Lane selection
+
+    @Test
+    void defaultLaneIsInteractive() {
+        GeminiWorkScheduler scheduler = scheduler(2, 1, 1, 1_000);
+
+        scheduler.admit(() -> 0);
+
+        assertEquals(1, meterRegistry.get("gemini.scheduler.wait").tag("lane", "INTERACTIVE").timer().count());
+    }
+
+    @Test
+    void withLaneRestoresPreviousLane() {
+        GeminiWorkScheduler scheduler = scheduler(2, 1, 1, 1_000);
+
+        GeminiWorkScheduler.withLane(Lane.BACKGROUND, () -> {
+            GeminiWorkScheduler.withLane(Lane.NEW_SUBMISSION, () -> 0);
+            scheduler.admit(() -> 0);
+            return null;
+        });
+        scheduler.admit(() -> 0);
+
+        assertEquals(1, meterRegistry.get("gemini.scheduler.wait").tag("lane", "BACKGROUND").timer().count());
+        assertEquals(1, meterRegistry.get("gemini.scheduler.wait").tag("lane", "INTERACTIVE").timer().count());
+    }
+
+    // Weighted round-robin
+
+    @Test
+    void waitingLanesAreServedBySmoothWeightedRoundRobin() throws Exception {
+        GeminiWorkScheduler scheduler = scheduler(2, 1, 1, 5_000);
+        List<Lane> order = Collections.synchronizedList(new ArrayList<>());
+
+        // Hold the turn so everyone else queues up
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = admitAsync(scheduler, Lane.NEW_SUBMISSION, hold(holding, release));
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+        List<CompletableFuture<Void>> callers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            callers.add(admitAsync(scheduler, Lane.BACKGROUND, record(order, Lane.BACKGROUND)));
+        }
+        awaitQueued(Lane.BACKGROUND, 3);
+        for (int i = 0; i < 3; i++) {
+            callers.add(admitAsync(scheduler, Lane.INTERACTIVE, record(order, Lane.INTERACTIVE)));
+        }
+        awaitQueued(Lane.INTERACTIVE, 3);
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        CompletableFuture.allOf(callers.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+
+        // Weights 2:1, interactive first although background queued earlier
+        assertEquals(List.of(
+            Lane.INTERACTIVE, Lane.BACKGROUND, Lane.INTERACTIVE,
+            Lane.INTERACTIVE, Lane.BACKGROUND, Lane.BACKGROUND), order);
+    }
+
+    // Quota refill (notBefore)
+
+    @Test
+    void callerWithoutTokenIsRequeuedAndRetriedAfterRefill() {
+        GeminiWorkScheduler scheduler = scheduler(2, 1, 1, 5_000);
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicLong firstAttempt = new AtomicLong();
+        AtomicLong secondAttempt = new AtomicLong();
+
+        scheduler.admit(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                firstAttempt.set(System.currentTimeMillis());
+                return 100;
+            }
+            secondAttempt.set(System.currentTimeMillis());
+            return 0;
+        });
+
+        assertEquals(2, attempts.get());
+        assertTrue(secondAttempt.get() - firstAttempt.get() >= 100);
+    }
+
+    @Test
+    void nobodyIsAdmittedBeforeRefillThenNextTurnGoesByWeight() throws Exception {
+        GeminiWorkScheduler scheduler = scheduler(6, 3, 1, 5_000);
+        List<Lane> order = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong refillDue = new AtomicLong();
+        AtomicLong interactiveAdmitted = new AtomicLong();
+        CountDownLatch parked = new CountDownLatch(1);
+        AtomicInteger backgroundAttempts = new AtomicInteger();
+
+        CompletableFuture<Void> background = admitAsync(scheduler, Lane.BACKGROUND, () -> {
+            if (backgroundAttempts.incrementAndGet() == 1) {
+                refillDue.set(System.currentTimeMillis() + 200);
+                parked.countDown();
+                return 200;
+            }
+            order.add(Lane.BACKGROUND);
+            return 0;
+        });
+        assertTrue(parked.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> interactive = admitAsync(scheduler, Lane.INTERACTIVE, () -> {
+            interactiveAdmitted.set(System.currentTimeMillis());
+            order.add(Lane.INTERACTIVE);
+            return 0;
+        });
+
+        interactive.get(5, TimeUnit.SECONDS);
+        background.get(5, TimeUnit.SECONDS);
+
+        // Parked background ticket kept its place, but the refilled turn went to the heavier lane
+        assertTrue(interactiveAdmitted.get() >= refillDue.get() - 5);
+        assertEquals(List.of(Lane.INTERACTIVE, Lane.BACKGROUND), order);
+        assertEquals(2, backgroundAttempts.get());
+    }
+
+    @Test
+    void tokenDueAfterLaneDeadlineFailsFast() {
+        GeminiWorkScheduler scheduler = scheduler(2, 1, 1, 1_000);
+        long start = System.currentTimeMillis();
+
+        GeminiUnavailableException e = assertThrows(GeminiUnavailableException.class,
+            () -> scheduler.admit(() -> 30_000));
+
+        assertTrue(e.getMessage().contains("Kuota Gemini habis"));
+        assertTrue(System.currentTimeMillis() - start < 1_000);
+        assertEquals(0.0, queueDepth(Lane.INTERACTIVE));
+    }
+
+    @Test
+    void callerGivesUpAfterLaneMaxWait() throws Exception {
+        GeminiWorkScheduler scheduler = scheduler(2, 1, 1, 100);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = admitAsync(scheduler, Lane.BACKGROUND, hold(holding, release));
+        assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+        GeminiUnavailableException e = assertThrows(GeminiUnavailableException.class,
+            () -> scheduler.admit(() -> 0));
+
+        assertTrue(e.getMessage().contains("INTERACTIVE"));
+        assertEquals(0.0, queueDepth(Lane.INTERACTIVE));
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void tokenErrorReleasesTheTurn() {
+        GeminiWorkScheduler scheduler = scheduler(2, 1, 1, 1_000);
+
+        assertThrows(IllegalStateException.class, () -> scheduler.admit(() -> {
+            throw new IllegalStateException("redis down");
+        }));
+
+        // Next caller is not blocked by a turn that was never released
+        scheduler.admit(() -> 0);
+    }
+
+    // Private Helper Methods
+
+    private GeminiWorkScheduler scheduler(int interactive, int newSubmission, int background, long maxWait) {
+        GeminiMetrics metrics = new GeminiMetrics(meterRegistry, new GeminiCallGuard());
+        return new GeminiWorkScheduler(metrics, interactive, newSubmission, background, maxWait, maxWait, maxWait);
+    }
+
+    private CompletableFuture<Void> admitAsync(GeminiWorkScheduler scheduler, Lane lane, LongSupplier tryTakeToken) {
+        return CompletableFuture.runAsync(() -> GeminiWorkScheduler.withLane(lane, () -> {
+            scheduler.admit(tryTakeToken);
+            return null;
+        }), pool);
+    }
+
+    /**
+     * Token supplier that keeps the turn until released
+     */
+    private LongSupplier hold(CountDownLatch holding, CountDownLatch release) {
+        return () -> {
+            holding.countDown();
+            await(release);
+            return 0;
+        };
+    }
+
+    private LongSupplier record(List<Lane> order, Lane lane) {
+        return () -> {
+            order.add(lane);
+            return 0;
+        };
+    }
+
+    private double queueDepth(Lane lane) {
+        return meterRegistry.get("gemini.scheduler.queue.depth").tag("lane", lane.name()).gauge().value();
+    }
+
+    /**
+     * Wait until the lane holds the expected number of tickets
+     */
+    private void awaitQueued(Lane lane, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (queueDepth(lane) != expected) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Lane " + lane + " never reached " + expected + " tickets");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
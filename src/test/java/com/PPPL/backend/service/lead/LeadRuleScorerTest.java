@@ -0,0 +1,140 @@
+package com.PPPL.backend.service.lead;
+
+import com.PPPL.backend.data.lead.LeadScoringRequest;
+import com.PPPL.backend.data.lead.LeadScoringResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeadRuleScorerTest {
+
+    private static final String CORPORATE = "ceo@acme.co.id";
+    private static final String PERSONAL = "budi@gmail.com";
+
+    private LeadRuleScorer scorer;
+
+    @BeforeEach
+    void setUp() {
+        scorer = new LeadRuleScorer();
+        ReflectionTestUtils.setField(scorer, "enabled", true);
+    }
+
+    // Tier parsing
+
+    @Test
+    void hotBudgetTimelineAndCorporateEmailScoreHot() {
+        LeadScoringResponse result = score("100 juta", "2 minggu", CORPORATE).orElseThrow();
+
+        assertEquals("HOT", result.getSkorPrioritas());
+        assertEquals("Lainnya", result.getKategori());
+    }
+
+    @Test
+    void rangeWithoutUnitInheritsNextUnit() {
+        LeadScoringResponse result = score("20-50 juta", "1-3 bulan", PERSONAL).orElseThrow();
+
+        assertEquals("WARM", result.getSkorPrioritas());
+        assertEquals("Lainnya", result.getKategori());
+    }
+
+    @Test
+    void rawRupiahWithThousandSeparatorsIsReadAsJuta() {
+        assertEquals("HOT", score("Rp 75.000.000", "segera", CORPORATE).orElseThrow().getSkorPrioritas());
+        assertEquals("WARM", score("Rp 50.000.000", "2 bulan", PERSONAL).orElseThrow().getSkorPrioritas());
+    }
+
+    @Test
+    void boundWordsOpenTheRange() {
+        assertEquals("HOT", score("di atas 50 juta", "kurang dari 1 bulan", CORPORATE).orElseThrow().getSkorPrioritas());
+        assertEquals("HOT", score("diatas 50 jt", "< 3 minggu", CORPORATE).orElseThrow().getSkorPrioritas());
+        assertEquals("COLD", score("dibawah 10 juta", "lebih dari 3 bulan", PERSONAL).orElseThrow().getSkorPrioritas());
+    }
+
+    @Test
+    void unknownBudgetAndFlexibleTimelineScoreCold() {
+        assertEquals("COLD", score("tidak tahu", "fleksibel", PERSONAL).orElseThrow().getSkorPrioritas());
+    }
+
+    @Test
+    void terbatasIsNotALowerBound() {
+        // "terbatas" contains "atas", must stay exactly 50 juta (WARM), not "> 50 juta" (HOT)
+        assertEquals("WARM", score("50 juta, terbatas", "2 bulan", PERSONAL).orElseThrow().getSkorPrioritas());
+    }
+
+    @Test
+    void miliarAndMillionUnits() {
+        assertEquals("HOT", score("1 miliar", "2 minggu", CORPORATE).orElseThrow().getSkorPrioritas());
+        assertEquals("HOT", score("1 milyar", "2 minggu", CORPORATE).orElseThrow().getSkorPrioritas());
+        assertEquals("COLD", score("5 million", "6 bulan", PERSONAL).orElseThrow().getSkorPrioritas());
+    }
+
+    @Test
+    void bareMUnitIsAmbiguous() {
+        assertTrue(score("1 m", "2 minggu", CORPORATE).isEmpty());
+        assertTrue(score("Rp 1M", "2 minggu", CORPORATE).isEmpty());
+    }
+
+    @Test
+    void disagreeingBudgetAndTimelineAreLeftToGemini() {
+        assertTrue(score("100 juta", "6 bulan", CORPORATE).isEmpty());
+        assertTrue(score("30-80 juta", "2 bulan", CORPORATE).isEmpty());
+        assertTrue(score("100 juta", "", CORPORATE).isEmpty());
+    }
+
+    // Email rules
+
+    @Test
+    void hotRequiresCorporateEmail() {
+        assertTrue(score("100 juta", "2 minggu", PERSONAL).isEmpty());
+    }
+
+    @Test
+    void coldRequiresPersonalEmail() {
+        assertTrue(score("tidak tahu", "fleksibel", CORPORATE).isEmpty());
+    }
+
+    @Test
+    void personalDomainsAreCaseInsensitive() {
+        LeadScoringResponse result = score("20-50 juta", "1-3 bulan", "Budi@GMAIL.com").orElseThrow();
+
+        assertTrue(result.getAlasan().endsWith("email personal"));
+    }
+
+    @Test
+    void subdomainOfPersonalProviderIsCorporate() {
+        LeadScoringResponse result = score("20-50 juta", "1-3 bulan", "it@mail.acme.com").orElseThrow();
+
+        assertTrue(result.getAlasan().endsWith("email corporate"));
+    }
+
+    @Test
+    void missingOrInvalidEmailIsLeftToGemini() {
+        assertTrue(score("20-50 juta", "1-3 bulan", null).isEmpty());
+        assertTrue(score("20-50 juta", "1-3 bulan", "budi").isEmpty());
+        assertTrue(score("20-50 juta", "1-3 bulan", "budi@").isEmpty());
+    }
+
+    @Test
+    void disabledScorerNeverScores() {
+        ReflectionTestUtils.setField(scorer, "enabled", false);
+
+        assertTrue(score("100 juta", "2 minggu", CORPORATE).isEmpty());
+    }
+
+    // Private Helper Methods
+
+    private Optional<LeadScoringResponse> score(String anggaran, String waktuImplementasi, String email) {
+        LeadScoringRequest request = new LeadScoringRequest();
+        request.setIdRequest(1);
+        request.setAnggaran(anggaran);
+        request.setWaktuImplementasi(waktuImplementasi);
+        request.setEmailKlien(email);
+        return scorer.score(request);
+    }
+}
@@ -0,0 +1,244 @@
+package com.PPPL.backend.service.lead;
+
+import com.PPPL.backend.BackendApplication;
+import com.PPPL.backend.config.cache.RateLimiterRedisConfig;
+import com.PPPL.backend.model.admin.Klien;
+import com.PPPL.backend.model.enums.StatusKlien;
+import com.PPPL.backend.model.enums.StatusRequest;
+import com.PPPL.backend.model.layanan.Layanan;
+import com.PPPL.backend.model.layanan.RequestLayanan;
+import com.PPPL.backend.repository.client.KlienRepository;
+import com.PPPL.backend.repository.layanan.LayananRepository;
+import com.PPPL.backend.repository.layanan.RequestLayananRepository;
+import com.PPPL.backend.service.admin.LeadScoringService;
+import com.PPPL.backend.service.admin.LeadScoringService.BatchAnalysisResult;
+import com.PPPL.backend.service.layanan.RequestMonthlyRollupService;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Lead scoring benchmark (profile "benchmark", normally together with "gemini-stub").
+ * Seeds synthetic leads into the configured database, then measures:
+ * 1. bulk analyzeAllPendingLeads throughput
+ * 2. concurrent single-lead re-analyze latency
+ * 3. the same single-lead latency while a bulk run is in progress
+ * Results are written to the log, then the application context is closed.
+ * Needs a dedicated disposable database in BENCHMARK_DATABASE_URL (never the dev database),
+ * the runner refuses to start without it.
+ * Test sources only (never in the production jar), run with:
+ * BENCHMARK_DATABASE_URL=jdbc:postgresql://localhost:5432/pandawa_bench \
+ * ./mvnw spring-boot:test-run -Dspring-boot.run.main-class=com.PPPL.backend.service.lead.LeadScoringBenchmarkRunner
+ */
+@Component
+@Profile("benchmark")
+@Slf4j
+public class LeadScoringBenchmarkRunner implements ApplicationRunner {
+
+    private static final String DATABASE_URL_ENV = "BENCHMARK_DATABASE_URL";
+    private static final String BENCHMARK_EMAIL = "benchmark@bench.local";
+    private static final String[] BUDGETS = {"10 juta", "20-50 juta", "75 juta", "tidak tahu", "100 juta"};
+    private static final String[] TIMELINES = {"2 minggu", "1-3 bulan", "6 bulan", "fleksibel", "segera"};
+
+    private final LeadScoringService leadScoringService;
+    private final RequestLayananRepository requestLayananRepository;
+    private final KlienRepository klienRepository;
+    private final LayananRepository layananRepository;
+    private final RateLimiterRedisConfig rateLimiterRedisConfig;
+    private final RequestMonthlyRollupService rollupService;
+    private final ApplicationContext applicationContext;
+
+    @Value("${benchmark.leads:100}")
+    private int leadCount;
+
+    @Value("${benchmark.interactive.requests:10}")
+    private int interactiveRequests;
+
+    @Value("${benchmark.interactive.concurrency:5}")
+    private int interactiveConcurrency;
+
+    @Value("${benchmark.admin-id:1}")
+    private int adminId;
+
+    public LeadScoringBenchmarkRunner(
+            LeadScoringService leadScoringService,
+            RequestLayananRepository requestLayananRepository,
+            KlienRepository klienRepository,
+            LayananRepository layananRepository,
+            RateLimiterRedisConfig rateLimiterRedisConfig,
+            RequestMonthlyRollupService rollupService,
+            ApplicationContext applicationContext) {
+        this.leadScoringService = leadScoringService;
+        this.requestLayananRepository = requestLayananRepository;
+        this.klienRepository = klienRepository;
+        this.layananRepository = layananRepository;
+        this.rateLimiterRedisConfig = rateLimiterRedisConfig;
+        this.rollupService = rollupService;
+        this.applicationContext = applicationContext;
+    }
+
+    public static void main(String[] args) {
+        // Seeded leads must never land in the dev database
+        String databaseUrl = System.getenv(DATABASE_URL_ENV);
+        if (databaseUrl == null || databaseUrl.isBlank()) {
+            throw new IllegalStateException(
+                DATABASE_URL_ENV + " belum di-set, benchmark butuh database terpisah (disposable)");
+        }
+
+        SpringApplication application = new SpringApplication(BackendApplication.class);
+        application.setAdditionalProfiles("gemini-stub", "benchmark");
+        application.run(args);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = 0;
+        try {
+            runBenchmark();
+        } catch (Exception e) {
+            log.error("BENCHMARK failed: {}", e.getMessage(), e);
+            exitCode = 1;
+        }
+
+        int status = exitCode;
+        SpringApplication.exit(applicationContext, () -> status);
+    }
+
+    // Private Helper Methods
+
+    private void runBenchmark() throws Exception {
+        log.info("BENCHMARK: {} leads, {} interactive requests @ concurrency {}",
+            leadCount, interactiveRequests, interactiveConcurrency);
+
+        // 1. Bulk scoring alone
+        List<Integer> seeded = seedLeads(leadCount);
+        resetRateLimits();
+        long start = System.currentTimeMillis();
+        BatchAnalysisResult bulk = leadScoringService.analyzeAllPendingLeads(adminId);
+        reportBulk("bulk only", bulk, System.currentTimeMillis() - start);
+
+        // 2. Interactive re-analyze alone
+        List<Integer> interactiveIds = seeded.subList(0, Math.min(interactiveRequests, seeded.size()));
+        resetRateLimits();
+        reportLatencies("interactive only", runInteractive(interactiveIds));
+
+        // 3. Interactive while bulk is running
+        seedLeads(leadCount);
+        resetRateLimits();
+        long mixedStart = System.currentTimeMillis();
+        CompletableFuture<BatchAnalysisResult> background =
+            CompletableFuture.supplyAsync(() -> leadScoringService.analyzeAllPendingLeads(adminId));
+        Thread.sleep(500);
+        reportLatencies("interactive during bulk", runInteractive(interactiveIds));
+        reportBulk("bulk with interactive", background.join(), System.currentTimeMillis() - mixedStart);
+
+        log.info("BENCHMARK finished");
+    }
+
+    /**
+     * Re-analyze leads concurrently, interactive requests use a separate admin id for rate limiting
+     */
+    private List<Long> runInteractive(List<Integer> ids) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(interactiveConcurrency);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+
+        try {
+            List<Callable<Void>> calls = new ArrayList<>();
+            for (Integer id : ids) {
+                calls.add(() -> {
+                    long start = System.currentTimeMillis();
+                    try {
+                        leadScoringService.analyzeLead(id, adminId + 1);
+                    } catch (Exception e) {
+                        log.warn("BENCHMARK interactive call for lead {} failed: {}", id, e.getMessage());
+                    }
+                    latencies.add(System.currentTimeMillis() - start);
+                    return null;
+                });
+            }
+            pool.invokeAll(calls);
+        } finally {
+            pool.shutdown();
+        }
+
+        return latencies;
+    }
+
+    private List<Integer> seedLeads(int count) {
+        Layanan layanan = layananRepository.findAll().stream().findFirst()
+            .orElseThrow(() -> new IllegalStateException("Benchmark butuh minimal satu Layanan"));
+
+        Klien klien = klienRepository.findByEmailKlien(BENCHMARK_EMAIL).orElseGet(() -> {
+            Klien created = new Klien();
+            created.setNamaKlien("Benchmark Klien");
+            created.setEmailKlien(BENCHMARK_EMAIL);
+            created.setNoTelp("0000000000");
+            created.setStatus(StatusKlien.BELUM);
+            created.setTglRequest(new Date());
+            return klienRepository.save(created);
+        });
+
+        List<RequestLayanan> requests = new ArrayList<>();
+        long run = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            RequestLayanan request = new RequestLayanan();
+            request.setKlien(klien);
+            request.setLayanan(layanan);
+            request.setTglRequest(new Date());
+            request.setStatus(StatusRequest.MENUNGGU_VERIFIKASI);
+            request.setPerusahaan("Benchmark " + i);
+            request.setTopic(layanan.getNamaLayanan());
+            request.setPesan("Benchmark lead " + run + "-" + i);
+            request.setAnggaran(BUDGETS[i % BUDGETS.length]);
+            request.setWaktuImplementasi(TIMELINES[(i / BUDGETS.length) % TIMELINES.length]);
+            request.setAiAnalyzed(false);
+            requests.add(request);
+        }
+
+        List<RequestLayanan> saved = requestLayananRepository.saveAll(requests);
+        saved.forEach(rollupService::recordCreated);
+        return saved.stream()
+            .map(RequestLayanan::getIdRequest)
+            .toList();
+    }
+
+    private void resetRateLimits() {
+        rateLimiterRedisConfig.clearAiRateLimit(adminId);
+        rateLimiterRedisConfig.clearAiRateLimit(adminId + 1);
+    }
+
+    private void reportBulk(String phase, BatchAnalysisResult result, long durationMillis) {
+        double throughput = durationMillis > 0 ? result.successCount * 1000.0 / durationMillis : 0;
+        log.info("BENCHMARK [{}] total={} success={} failed={} skipped={} rateLimited={} unavailable={} duration={}ms throughput={} leads/s",
+            phase, result.totalPending, result.successCount, result.failedCount, result.skippedCount,
+            result.rateLimitedCount, result.unavailableCount,
+            durationMillis, String.format("%.2f", throughput));
+    }
+
+    private void reportLatencies(String phase, List<Long> latencies) {
+        if (latencies.isEmpty()) {
+            log.info("BENCHMARK [{}] no requests", phase);
+            return;
+        }
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        log.info("BENCHMARK [{}] n={} p50={}ms p95={}ms p99={}ms max={}ms",
+            phase, sorted.size(), percentile(sorted, 0.50), percentile(sorted, 0.95),
+            percentile(sorted, 0.99), sorted.get(sorted.size() - 1));
+    }
+
+    private long percentile(List<Long> sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+}
@@ -0,0 +1,143 @@
+package com.PPPL.backend.util;
+
+import com.PPPL.backend.model.enums.StatusRekap;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExportWriterTest {
+
+    private static final List<ExportWriter.Column<Object[]>> COLUMNS = List.of(
+        new ExportWriter.Column<>("id", row -> row[0]),
+        new ExportWriter.Column<>("nama", row -> row[1])
+    );
+
+    // CSV
+
+    @Test
+    void csvHasHeaderAndCrlfLines() throws IOException {
+        String csv = csv(row(1, "Budi"), row(2, "Ani"));
+
+        assertEquals("id,nama\r\n1,Budi\r\n2,Ani\r\n", csv);
+    }
+
+    @Test
+    void emptyStreamWritesHeaderOnly() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = ExportWriter.write(Stream.empty(), COLUMNS, ExportWriter.Format.CSV, out);
+
+        assertEquals(0, count);
+        assertEquals("id,nama\r\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void separatorsQuotesAndLineBreaksAreQuoted() throws IOException {
+        assertEquals("\"PT A, Tbk\"", cell("PT A, Tbk"));
+        assertEquals("\"Kata \"\"hebat\"\"\"", cell("Kata \"hebat\""));
+        assertEquals("\"baris1\nbaris2\"", cell("baris1\nbaris2"));
+        assertEquals("\"baris1\r\nbaris2\"", cell("baris1\r\nbaris2"));
+    }
+
+    @Test
+    void formulaPrefixesAreEscaped() throws IOException {
+        assertEquals("\"'=HYPERLINK(\"\"x\"\")\"", cell("=HYPERLINK(\"x\")"));
+        assertEquals("'=1+2", cell("=1+2"));
+        assertEquals("'+62812", cell("+62812"));
+        assertEquals("'-cmd", cell("-cmd"));
+        assertEquals("'@SUM(A1)", cell("@SUM(A1)"));
+        assertEquals("'\t=1", cell("\t=1"));
+        // Carriage return also forces quoting
+        assertEquals("\"'\r=1\"", cell("\r=1"));
+    }
+
+    @Test
+    void escapedFormulaWithSeparatorIsQuotedAfterPrefix() throws IOException {
+        assertEquals("\"'=SUM(A1,B1)\"", cell("=SUM(A1,B1)"));
+    }
+
+    @Test
+    void numbersAreNotEscaped() throws IOException {
+        assertEquals("-5", cell(-5));
+        assertEquals("-1.5", cell(-1.5));
+    }
+
+    @Test
+    void formulaCharacterInsideTextIsLeftAlone() throws IOException {
+        assertEquals("a=b", cell("a=b"));
+        assertEquals("budi@gmail.com", cell("budi@gmail.com"));
+    }
+
+    @Test
+    void nullEnumAndDatesAreFormatted() throws IOException {
+        Date timestamp = new Date(1_700_000_000_000L);
+
+        assertEquals("", cell(null));
+        assertEquals("", cell(""));
+        assertEquals("MASIH_JALAN", cell(StatusRekap.MASIH_JALAN));
+        assertEquals("2024-03-05", cell(java.sql.Date.valueOf("2024-03-05")));
+        assertEquals(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss").format(timestamp), cell(timestamp));
+    }
+
+    // NDJSON
+
+    @Test
+    void ndjsonWritesOneObjectPerLineInColumnOrder() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = ExportWriter.write(Stream.of(row(1, "=Budi, \"A\""), row(2, null)),
+            COLUMNS, ExportWriter.Format.NDJSON, out);
+
+        assertEquals(2, count);
+        assertEquals("{\"id\":1,\"nama\":\"=Budi, \\\"A\\\"\"}\n{\"id\":2,\"nama\":null}\n",
+            out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void utf8IsPreserved() throws IOException {
+        assertEquals("id,nama\r\n1,Café – 東京\r\n", csv(row(1, "Café – 東京")));
+    }
+
+    // Format
+
+    @Test
+    void formatDefaultsToCsvAndIgnoresCase() {
+        assertEquals(ExportWriter.Format.CSV, ExportWriter.Format.from(null));
+        assertEquals(ExportWriter.Format.CSV, ExportWriter.Format.from(" "));
+        assertEquals(ExportWriter.Format.NDJSON, ExportWriter.Format.from("NdJson"));
+        assertThrows(IllegalArgumentException.class, () -> ExportWriter.Format.from("xlsx"));
+    }
+
+    // Private Helper Methods
+
+    private static Object[] row(Object... values) {
+        return values;
+    }
+
+    private String csv(Object[]... rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = ExportWriter.write(Arrays.stream(rows), COLUMNS, ExportWriter.Format.CSV, out);
+        assertEquals(rows.length, count);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * CSV text of a single value (second column of the only data line)
+     */
+    private String cell(Object value) throws IOException {
+        String csv = csv(row(1, value));
+        String line = csv.substring(csv.indexOf("\r\n") + 2, csv.length() - 2);
+        return line.substring(line.indexOf(',') + 1);
+    }
+}